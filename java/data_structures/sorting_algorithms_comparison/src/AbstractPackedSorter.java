@@ -0,0 +1,115 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This abstract class is the counterpart of AbstractSorter for points stored in a PointArray. It is extended
+ * by PackedQuickSorter, PackedMergeSorter, PackedHeapSorter, PackedRadixSorter, and PackedShellSorter.
+ *
+ * Instead of a comparator, a sort is directed by the order (0 for x, 1 for y). Subclasses sort the key
+ * column selected by the order and apply every move to the other column as well, so that the two
+ * coordinates of a point always stay at the same index.
+ *
+ */
+public abstract class AbstractPackedSorter
+{
+	protected PointArray points;  // points operated on by a sorting algorithm.
+	                              // stores ordered points after a call to sort().
+
+	protected String algorithm = null; // Initialized by a subclass constructor.
+
+	protected int order = 0;  // 0 sorts by x-coordinate, 1 by y-coordinate.
+
+
+	/**
+	 * This constructor accepts packed points as input. Copy the points into points.
+	 *
+	 * @param  pts  input points
+	 * @throws IllegalArgumentException if pts == null or pts.size() == 0.
+	 */
+	protected AbstractPackedSorter(PointArray pts) throws IllegalArgumentException {
+		if ((pts == null) || (pts.size() == 0)) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
+		}
+
+		points = pts.copy();
+	}
+
+
+	/**
+	 * Hands pts over to this sorter, which sorts its coordinate columns in place from now on instead of the
+	 * copy its constructor made. Nothing is copied, and the caller must not modify pts while the sorter
+	 * uses it.
+	 *
+	 * @param  pts  points to sort in place
+	 * @throws IllegalArgumentException if pts == null or pts.size() == 0.
+	 */
+	public void adopt(PointArray pts) throws IllegalArgumentException {
+		if ((pts == null) || (pts.size() == 0)) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
+		}
+		points = pts;
+	}
+
+
+	/**
+	 * Sets the coordinate the next sort() orders by.
+	 *
+	 * @param order  0   by x-coordinate
+	 * 				 1   by y-coordinate
+	 *
+	 * @throws IllegalArgumentException if order is less than 0 or greater than 1
+	 */
+	public void setOrder(int order) throws IllegalArgumentException {
+		if ((order != 0) && (order != 1)) {
+			throw new IllegalArgumentException("Order must be 0 or 1");
+		}
+		this.order = order;
+	}
+
+
+	/**
+	 * Sort the points by the coordinate selected by order.
+	 */
+	protected abstract void sort();
+
+
+	/**
+	 * @return  the coordinate selected by order of the point with median index
+	 */
+	public int getMedian() {
+		return keys()[points.size() / 2];
+	}
+
+
+	/**
+	 * Copies the sorted coordinates into pts.
+	 *
+	 * @param pts
+	 */
+	public void getPoints(PointArray pts) {
+		System.arraycopy(points.xs, 0, pts.xs, 0, points.size());
+		System.arraycopy(points.ys, 0, pts.ys, 0, points.size());
+	}
+
+
+	/**
+	 * @return  the column of the coordinate selected by order
+	 */
+	protected int[] keys() {
+		return order == 0 ? points.xs : points.ys;
+	}
+
+
+	/**
+	 * @return  the column of the other coordinate, moved along with the keys
+	 */
+	protected int[] values() {
+		return order == 0 ? points.ys : points.xs;
+	}
+}
@@ -7,7 +7,11 @@ package src;
  *
  */
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
 import java.lang.IllegalArgumentException; 
 
 /**
@@ -25,6 +29,16 @@ public abstract class AbstractSorter {
 	                                   // "quicksort". Initialized by a subclass constructor.
 		 
 	protected Comparator<Point> pointComparator = null;  
+	
+	protected ToIntFunction<Point> pointKey = null;  // extracts the coordinate pointComparator compares by.
+	
+	protected int order = 0;  // 0 if sorting by x-coordinate, 1 if by y-coordinate. Set by setComparator().
+	
+	protected OperationCounter counter = null;  // counts the operations of sort() if not null. Set by setCounter().
+	
+	// The comparators hold no state, so sorters on different threads can share them.
+	private static final Comparator<Point> X_ORDER = (a, b) -> Integer.compare(a.getX(), b.getX());
+	private static final Comparator<Point> Y_ORDER = (a, b) -> Integer.compare(a.getY(), b.getY());
 			
 	/**
 	 * This constructor accepts an array of points as input. Copy the points into the array points[]. 
@@ -37,12 +51,7 @@ public abstract class AbstractSorter {
 			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
 		}
 		
-		points = new Point[pts.length];
-		
-		// Constructs the Point array.
-		for (int i = 0; i < pts.length; i++) {
-			points[i] = pts[i];
-		}
+		points = pts.clone(); // Copies the references in bulk.
 	}
 
 
@@ -60,23 +69,46 @@ public abstract class AbstractSorter {
 	 *        
 	 */
 	public void setComparator(int order) throws IllegalArgumentException {
-		// Inner class that implements Comparator<Point> interface.
-		pointComparator = new Comparator<Point>() {
-			@Override
-			public int compare(Point a, Point b) {
-				// Sets static boolean xORy based on value of order.
-				if (order == 0) {
-					Point.setXorY(true);
-				}
-				else if (order == 1) {
-					Point.setXorY(false);
-				}
-				else {
-					throw new IllegalArgumentException("Order must be 0 or 1");
-				}
-				return a.compareTo(b); // compareTo() inherently compares points by either x or y coordintes based on order.
- 			}
-		};
+		// The axis is kept by this sorter, so sorters never share state through Point.
+		if (order == 0) {
+			pointComparator = X_ORDER;
+			pointKey = Point::getX;
+		}
+		else if (order == 1) {
+			pointComparator = Y_ORDER;
+			pointKey = Point::getY;
+		}
+		else {
+			throw new IllegalArgumentException("Order must be 0 or 1");
+		}
+		this.order = order;
+		
+		// Only a counting sorter pays for the wrapper.
+		if (counter != null) {
+			pointComparator = counter.counting(pointComparator);
+		}
+	}
+	
+	
+	/**
+	 * Makes sort() count its operations in the given counter, or stops counting if counter is null. The 
+	 * counts add up over calls to sort() until the counter is reset. 
+	 * 
+	 * @param counter  counter to add to, or null
+	 */
+	public void setCounter(OperationCounter counter) {
+		this.counter = counter;
+		if (pointComparator != null) {
+			setComparator(order); // Wraps or unwraps the comparator already set.
+		}
+	}
+	
+	
+	/**
+	 * @return  the counter set by setCounter(), or null if the sorter does not count
+	 */
+	public OperationCounter getCounter() {
+		return counter;
 	}
 
 	/**
@@ -98,15 +130,40 @@ public abstract class AbstractSorter {
 	
 	
 	/**
-	 * Copys the array points[] onto the array pts[]. 
+	 * Hands the array pts over to this sorter, which sorts pts in place from now on instead of the copy its 
+	 * constructor made. Nothing is copied. The caller gives up pts: it must not modify pts while the sorter 
+	 * uses it, and finds it reordered by every sort(). 
+	 * 
+	 * @param  pts  array of points to sort in place
+	 * @throws IllegalArgumentException if pts == null or pts.length == 0.
+	 */
+	public void adopt(Point[] pts) throws IllegalArgumentException {
+		if ((pts == null) || (pts.length == 0)) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
+		}
+		points = pts;
+	}
+	
+	
+	/**
+	 * Copys the array points[] onto the array pts[]. Points are immutable, so the references are copied 
+	 * in bulk instead of cloning every point. 
 	 * 
 	 * @param pts
 	 */
 	public void getPoints(Point[] pts){
-		// Calls the Point class' "Clone" constructor.
-		for (int i = 0; i < points.length; i++) {
-			pts[i] = new Point(points[i]);
-		}
+		System.arraycopy(points, 0, pts, 0, points.length);
+	}
+	
+	
+	/**
+	 * Returns a read-only view of the array points[], without copying it. The view shows the order left 
+	 * by the latest sort(). 
+	 * 
+	 * @return  unmodifiable list backed by points[]
+	 */
+	public List<Point> getPointsView() {
+		return Collections.unmodifiableList(Arrays.asList(points));
 	}
 
 	/**
@@ -120,7 +177,90 @@ public abstract class AbstractSorter {
 		Point temp = points[i];
 		points[i] = points[j];   
 		points[j] = temp;
+		
+		if (counter != null) {
+			counter.addSwap();
+		}
 	}	
+	
+	/**
+	 * Counts comparisons of int keys extracted from the points if the sorter counts. Comparator 
+	 * invocations are counted by the comparator itself. Called once per pass with its total. 
+	 * 
+	 * @param comparisons  number of key comparisons
+	 */
+	protected void countComparisons(long comparisons) {
+		if (counter != null) {
+			counter.addComparisons(comparisons);
+		}
+	}
+	
+	/**
+	 * Counts writes of points if the sorter counts. Called once per pass or merge with its total. 
+	 * 
+	 * @param writes  number of points written
+	 */
+	protected void countWrites(long writes) {
+		if (counter != null) {
+			counter.addWrites(writes);
+		}
+	}
+	
+	/**
+	 * Counts an auxiliary array if the sorter counts. 
+	 * 
+	 * @param length        number of elements
+	 * @param elementBytes  bytes per element, such as OperationCounter.REFERENCE_BYTES
+	 */
+	protected void countAllocation(long length, int elementBytes) {
+		if (counter != null) {
+			counter.addAllocation(length * elementBytes);
+		}
+	}
+	
+	/**
+	 * Sorts the subarray of points[] between first and last by insertion sort. Used by the sorters that 
+	 * finish small subarrays without recursing further. 
+	 * 
+	 * @param first
+	 * @param last
+	 */
+	protected void insertionSort(int first, int last) {
+		long writes = 0;
+		for (int i = first + 1; i <= last; i++) {
+			Point tempPoint = points[i];
+			int j = i - 1;
+			
+			while ((j >= first) && (pointComparator.compare(points[j], tempPoint) > 0)) {
+				points[j + 1] = points[j];
+				j--;
+			}
+			points[j + 1] = tempPoint;
+			writes += i - j; // The shifts and the final placement.
+		}
+		countWrites(writes);
+	}
+	
+	/**
+	 * Returns the index of the median of the points at i, j, and k in the array points[]. 
+	 * 
+	 * @param i
+	 * @param j
+	 * @param k
+	 * @return
+	 */
+	protected int medianOfThree(int i, int j, int k) {
+		if (pointComparator.compare(points[i], points[j]) < 0) {
+			if (pointComparator.compare(points[j], points[k]) < 0) {
+				return j;
+			}
+			return pointComparator.compare(points[i], points[k]) < 0 ? k : i;
+		}
+		if (pointComparator.compare(points[i], points[k]) < 0) {
+			return i;
+		}
+		return pointComparator.compare(points[j], points[k]) < 0 ? k : j;
+	}
 }
 
 
@@ -19,5 +19,12 @@ public enum Algorithm
 	ShellSort, 
 	BucketSort, 
 	CountingSort, 
-	CubeSort
+	CubeSort, 
+	IntroSelect,    // median strategy: selects the median in linear time instead of sorting.
+	ParallelMergeSort, 
+	ThreeWayQuickSort, 
+	ByteRadixSort, 
+	BottomUpMergeSort, 
+	DaryHeapSort, 
+	Auto            // chooses one of the other algorithms from statistics of the input, see AutoSorter.
 }
@@ -0,0 +1,153 @@
+package src;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class determines an approximate median coordinate point (MCP) of point files that do not fit in
+ * memory. Each file is streamed once by PointFileReader.stream(), and the x- and y-coordinates are fed into
+ * two KLL sketches, so memory use depends on the rank error only, not on the number of points.
+ *
+ * The input is a point file or a directory of point files (shards). Each shard is sketched separately and
+ * the sketches are merged, which gives the same guarantee as sketching all points at once.
+ *
+ * The guarantee is on ranks: with n points, the x-coordinate of the MCP is the value at some index of the
+ * sorted x-coordinates within epsilon * n of n/2, the index PointScanner takes its median from, and likewise
+ * for y. The bound holds with high probability.
+ *
+ */
+
+public class ApproximatePointScanner
+{
+	private static final long SEED = 0x5EED;  // seed of the sketches, so that scans are repeatable.
+
+	private final String inputName;  // point file or directory of point files.
+	private final double epsilon;    // requested bound on the rank error.
+
+	private KllSketch xSketch;  // x-coordinates of all points, filled by scan().
+	private KllSketch ySketch;  // y-coordinates of all points, filled by scan().
+
+	private Point medianCoordinatePoint;
+
+	protected long scanTime;  // execution time in nanoseconds.
+
+
+	/**
+	 * @param inputName  point file, or directory whose regular files are all point files
+	 * @param epsilon    bound on the rank error as a fraction of the number of points, in (0, 0.25]
+	 * @throws IllegalArgumentException if epsilon is out of range
+	 */
+	public ApproximatePointScanner(String inputName, double epsilon) throws IllegalArgumentException {
+		KllSketch.forEpsilon(epsilon, SEED);  // Validates epsilon.
+		this.inputName = inputName;
+		this.epsilon = epsilon;
+	}
+
+
+	/**
+	 * Streams every point file once and computes the approximate MCP.
+	 *
+	 * @throws FileNotFoundException    if the input or one of its files does not exist
+	 * @throws InputMismatchException   if a file contains an odd number of integers, or a token that is
+	 *                                  not an int
+	 * @throws IllegalStateException    if the input contains no points
+	 */
+	public void scan() throws FileNotFoundException, InputMismatchException, IllegalStateException {
+		long startTime = System.nanoTime();
+
+		xSketch = KllSketch.forEpsilon(epsilon, SEED);
+		ySketch = KllSketch.forEpsilon(epsilon, ~SEED);
+
+		long shard = 0;
+		for (String file : shards()) {
+			// Sketches every shard on its own, as a separate node would, and merges the result.
+			KllSketch x = KllSketch.forEpsilon(epsilon, SEED + shard);
+			KllSketch y = KllSketch.forEpsilon(epsilon, ~SEED - shard);
+			shard++;
+
+			PointFileReader.stream(file, pts -> {
+				for (int i = 0; i < pts.size(); i++) {
+					x.update(pts.xs[i]);
+					y.update(pts.ys[i]);
+				}
+			});
+
+			xSketch.merge(x);
+			ySketch.merge(y);
+		}
+
+		if (xSketch.count() == 0) {
+			throw new IllegalStateException("Input " + inputName + " contains no points");
+		}
+
+		medianCoordinatePoint = new Point(xSketch.median(), ySketch.median());
+		scanTime = System.nanoTime() - startTime;
+	}
+
+
+	/**
+	 * @return  the approximate MCP computed by scan()
+	 */
+	public Point getMedianCoordinatePoint() {
+		return medianCoordinatePoint;
+	}
+
+
+	/**
+	 * @return  number of points scanned
+	 */
+	public long size() {
+		return xSketch.count();
+	}
+
+
+	/**
+	 * @return  largest number of positions by which the rank of an MCP coordinate may differ from n/2
+	 */
+	public long rankErrorBound() {
+		return (long) Math.ceil(xSketch.epsilon() * xSketch.count());
+	}
+
+
+	/**
+	 * Outputs statistics in the format of PointScanner.stats(), followed by the rank error bound.
+	 */
+	public String stats() {
+		return String.format("%-17s %d   %d   rank error <= %d (%.4f%%)", "KLL sketch", size(), scanTime,
+				rankErrorBound(), 100 * xSketch.epsilon());
+	}
+
+
+	/**
+	 * Write MCP after a call to scan(), in the format "MCP: (x, y)".
+	 */
+	@Override
+	public String toString() {
+		return "MCP: " + medianCoordinatePoint.toString();
+	}
+
+
+	// Returns the input file, or the regular files of the input directory in name order.
+	private String[] shards() throws FileNotFoundException {
+		File input = new File(inputName);
+
+		if (input.isDirectory()) {
+			File[] files = input.listFiles(File::isFile);
+			if (files == null) {
+				throw new FileNotFoundException("Input directory " + inputName + " cannot be read.");
+			}
+			Arrays.sort(files);
+			return Arrays.stream(files).map(File::getPath).toArray(String[]::new);
+		}
+		return new String[] { inputName };
+	}
+}
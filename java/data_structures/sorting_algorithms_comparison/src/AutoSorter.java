@@ -0,0 +1,202 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class chooses a sorting algorithm for every sort() from statistics of the input, so that nobody has
+ * to pick an Algorithm by hand. The statistics come from a sample of at most 1024 positions, so they cost
+ * sublinear time: the descents and ascents between sampled neighbors, the range and the distinct keys of
+ * the sampled keys, and the inversions among sampled pairs. Only if no sampled neighbors descend (or none
+ * ascend) does a full pass count the runs, stopping early once there are too many. The sorter dispatches:
+ *
+ *     tiny input (up to 32 points)             insertion sort
+ *     sorted                                   nothing
+ *     descending                               reversal
+ *     up to 8 ascending runs                   bottom-up mergesort, which merges the existing runs
+ *     up to 2048 points, few inversions        insertion sort
+ *     sampled key range up to 8n               counting sort, which checks the exact range itself
+ *     many duplicates in a wide range          3-way quicksort
+ *     at least 2^20 points, several cores      parallel mergesort
+ *     otherwise                                bucket sort
+ *
+ * Every decision is logged at level FINE together with the statistics it is based on, so it stays out of the
+ * default console output.
+ *
+ */
+
+public class AutoSorter extends AbstractSorter
+{
+	private static final Logger LOGGER = Logger.getLogger(AutoSorter.class.getName());
+
+	private static final int TINY = 32;                    // inputs up to this size are insertion sorted.
+	private static final int SAMPLE = 1024;                // largest number of sampled positions.
+	private static final int MERGED_RUNS = 8;              // bottom-up mergesort for up to this many runs.
+	private static final int INSERTION_LIMIT = 2048;       // insertion sort for inputs up to this size
+	private static final int INVERSIONS_PER_POINT = 4;     // with up to this many inversions per point.
+	private static final int DUPLICATE_FACTOR = 8;         // 3-way quicksort if 1/8 of the sample is distinct or less.
+	private static final int PARALLEL_THRESHOLD = 1 << 20; // smallest input given to the parallel mergesort.
+
+	private String decision = null;  // algorithm chosen by the last call to sort().
+
+
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input array of points
+	 */
+	public AutoSorter(Point[] pts) {
+		super(pts);
+		algorithm = "auto";
+	}
+
+
+	/**
+	 * Sorts the array points[] of the parent class AbstractSorter with the algorithm that suits it.
+	 *
+	 */
+	@Override
+	public void sort() {
+		int n = points.length;
+
+		if (n <= TINY) {
+			decide("insertion sort", "tiny input, n=" + n);
+			insertionSort(0, n - 1);
+			return;
+		}
+
+		// Samples neighbors for presortedness, keys for range and duplicates, and pairs for inversions.
+		int samples = Math.min(SAMPLE, Math.max(TINY, n / 16));
+		Random rand = new Random(n);
+		int[] sample = new int[samples];
+		countAllocation(samples, OperationCounter.INT_BYTES);
+		int descents = 0, ascents = 0, inverted = 0;
+
+		for (int s = 0; s < samples; s++) {
+			int i = rand.nextInt(n - 1);
+			int key = pointKey.applyAsInt(points[i]);
+			int next = pointKey.applyAsInt(points[i + 1]);
+			if (next < key) {
+				descents++;
+			}
+			else if (next > key) {
+				ascents++;
+			}
+			sample[s] = key;
+
+			int j = rand.nextInt(n);
+			if (pointKey.applyAsInt(points[Math.min(i, j)]) > pointKey.applyAsInt(points[Math.max(i, j)])) {
+				inverted++;
+			}
+		}
+
+		Arrays.sort(sample);
+		int distinct = 1;
+		for (int s = 1; s < samples; s++) {
+			if (sample[s] != sample[s - 1]) {
+				distinct++;
+			}
+		}
+		long range = (long) sample[samples - 1] - sample[0] + 1;
+		double inversions = (double) inverted / samples * n * (n - 1) / 2;
+		String stats = String.format("n=%d, sampled range=%d, distinct %d/%d, descents %d/%d, inversions~%.3g",
+				n, range, distinct, samples, descents, samples, inversions);
+
+		if (descents == 0) {
+			int runs = countRuns(true);
+			if (runs == 1) {
+				decide("none", "sorted, " + stats);
+				return;
+			}
+			if (runs <= MERGED_RUNS) {
+				decide("bottom-up mergesort", runs + " runs, " + stats);
+				delegate(Algorithm.BottomUpMergeSort);
+				return;
+			}
+		}
+		else if (ascents == 0 && countRuns(false) == 1) {
+			decide("reversal", "descending, " + stats);
+			for (int i = 0, j = n - 1; i < j; i++, j--) {
+				swap(i, j);
+			}
+			return;
+		}
+
+		if (n <= INSERTION_LIMIT && inversions <= (double) INVERSIONS_PER_POINT * n) {
+			decide("insertion sort", "few inversions, " + stats);
+			insertionSort(0, n - 1);
+		}
+		else if (range <= (long) CountingSorter.DEFAULT_RANGE_FACTOR * n) {
+			decide("counting sort", "narrow range, " + stats);
+			delegate(Algorithm.CountingSort);
+		}
+		else if (distinct * DUPLICATE_FACTOR <= samples) {
+			decide("3-way quicksort", "many duplicates, " + stats);
+			delegate(Algorithm.ThreeWayQuickSort);
+		}
+		else if (n >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+			decide("parallel mergesort", "large input, " + stats);
+			delegate(Algorithm.ParallelMergeSort);
+		}
+		else {
+			decide("bucket sort", "wide range, " + stats);
+			delegate(Algorithm.BucketSort);
+		}
+	}
+
+
+	/**
+	 * @return  the algorithm chosen by the last call to sort(), or null before the first call
+	 */
+	public String getDecision() {
+		return decision;
+	}
+
+
+	/**
+	 * Counts the ascending runs of points[], or the descending runs if ascending is false. Stops counting
+	 * after MERGED_RUNS + 1 runs, since any larger number leads to the same decision.
+	 */
+	private int countRuns(boolean ascending) {
+		int runs = 1;
+		int previous = pointKey.applyAsInt(points[0]);
+
+		for (int i = 1; i < points.length && runs <= MERGED_RUNS; i++) {
+			int key = pointKey.applyAsInt(points[i]);
+			if (ascending ? key < previous : key > previous) {
+				runs++;
+			}
+			previous = key;
+		}
+		return runs;
+	}
+
+
+	// Records and logs the chosen algorithm.
+	private void decide(String engine, String reason) {
+		decision = engine;
+		algorithm = "auto (" + engine + ")";
+		LOGGER.fine(() -> (order == 0 ? "x" : "y") + ": " + engine + " for " + reason);
+	}
+
+
+	/**
+	 * Sorts points[] in place with the sorter of the given algorithm, which adopts points[] instead of
+	 * copying it. It counts into the counter of this sorter.
+	 */
+	private void delegate(Algorithm algo) {
+		AbstractSorter engine = PointScanner.createSorter(algo, points);
+		engine.setCounter(counter);
+		engine.setComparator(order);
+		engine.sort();
+	}
+}
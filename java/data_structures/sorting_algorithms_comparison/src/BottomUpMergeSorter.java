@@ -0,0 +1,149 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements an iterative, bottom-up mergesort that allocates one auxiliary array per sort.
+ *
+ * The array is first cut into natural runs: maximal ascending runs are kept, strictly descending runs are
+ * reversed, and runs shorter than MIN_RUN are extended by insertion sort. Adjacent runs are then merged
+ * pairwise, pass after pass, until one run is left. A merge copies only its left run into the auxiliary
+ * array, and is skipped entirely if the two runs are already in order. The sort is stable.
+ *
+ */
+
+public class BottomUpMergeSorter extends AbstractSorter
+{
+	private static final int MIN_RUN = 32;  // shorter runs are extended to this length by insertion sort.
+
+	private Point[] aux;  // holds the left run of the merge in progress.
+
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input array of points
+	 */
+	public BottomUpMergeSorter(Point[] pts) {
+		super(pts);
+		algorithm = "bottom-up mergesort";
+	}
+
+
+	/**
+	 * Perform bottom-up mergesort on the array points[] of the parent class AbstractSorter.
+	 *
+	 */
+	@Override
+	public void sort() {
+		int size = points.length;
+		if (size <= 1) {
+			return;
+		}
+
+		// Run r is [starts[r], starts[r + 1]). Every run but the last has at least MIN_RUN points.
+		int[] starts = new int[size / MIN_RUN + 2];
+		countAllocation(starts.length, OperationCounter.INT_BYTES);
+		int runs = 0;
+
+		int first = 0;
+		while (first < size) {
+			int end = findRun(first);
+
+			if (end - first < MIN_RUN) {
+				end = Math.min(size, first + MIN_RUN);
+				insertionSort(first, end - 1);
+			}
+
+			starts[runs++] = first;
+			first = end;
+		}
+		starts[runs] = size;
+
+		aux = new Point[size];
+		countAllocation(size, OperationCounter.REFERENCE_BYTES);
+
+		// Merges runs 0 and 1, 2 and 3, and so on, until one run remains.
+		while (runs > 1) {
+			int merged = 0;
+
+			for (int r = 0; r < runs; r += 2) {
+				if (r + 1 < runs) {
+					merge(starts[r], starts[r + 1], starts[r + 2]);
+				}
+				starts[merged++] = starts[r];
+			}
+
+			starts[merged] = size;
+			runs = merged;
+		}
+
+		aux = null;
+	}
+
+
+	/**
+	 * Finds the natural run starting at first. A strictly descending run is reversed into an ascending one;
+	 * reversing only strictly descending runs keeps the sort stable.
+	 *
+	 * @param first  starting index of the run
+	 * @return       index one past the end of the run
+	 */
+	private int findRun(int first) {
+		int end = first + 1;
+		if (end == points.length) {
+			return end;
+		}
+
+		if (pointComparator.compare(points[end], points[first]) < 0) {
+			while (end < points.length && pointComparator.compare(points[end], points[end - 1]) < 0) {
+				end++;
+			}
+
+			for (int i = first, j = end - 1; i < j; i++, j--) {
+				swap(i, j);
+			}
+		}
+		else {
+			while (end < points.length && pointComparator.compare(points[end], points[end - 1]) >= 0) {
+				end++;
+			}
+		}
+
+		return end;
+	}
+
+
+	// Merges the sorted runs [first, middle) and [middle, end) of points[].
+	private void merge(int first, int middle, int end) {
+		// Runs already in order need no merge.
+		if (pointComparator.compare(points[middle - 1], points[middle]) <= 0) {
+			return;
+		}
+
+		int p = middle - first;
+		System.arraycopy(points, first, aux, 0, p);
+
+		int i = 0, j = middle, k = first;
+
+		// The right run is read in place; k never passes j, so no unread point is overwritten.
+		while ((i < p) && (j < end)) {
+			if (pointComparator.compare(aux[i], points[j]) <= 0) {
+				points[k++] = aux[i++];
+			}
+			else {
+				points[k++] = points[j++];
+			}
+		}
+
+		while (i < p) {
+			points[k++] = aux[i++];
+		}
+		countWrites(p + (k - first)); // The copy of the left run and the merge.
+	}
+}
@@ -1,10 +1,7 @@
 
 package src;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 /**
  *  
@@ -14,14 +11,19 @@ import java.util.List;
 
 /**
  * 
- * This class implements the version of the bucket sort algorithm presented in the lecture.   
+ * This class implements bucket sort with a flat bucket layout.   
+ * 
+ * The number of buckets follows the number of points rather than the range of the keys: the range 
+ * [min, max] is cut into at most n equal slices. A counting pass and a prefix sum give the start of 
+ * every bucket, and the points are scattered stably into one output array, so no bucket is an object of 
+ * its own. Small buckets are finished by insertion sort, larger ones by a stable library sort. Memory is 
+ * O(n) for any coordinate range.
  *
  */
 
 public class BucketSorter extends AbstractSorter
 {
-	
-	// Other private instance variables if you need ... 
+	private static final int INSERTION_LIMIT = 32;  // buckets up to this size are finished by insertion sort.
 		
 	/** 
 	 * Constructor takes an array of points.  It invokes the superclass constructor, and also 
@@ -41,47 +43,92 @@ public class BucketSorter extends AbstractSorter
 	 */
 	@Override
 	public void sort() {
-	    int max;
-	    int min;
-
-	    if (Point.xORy) {
-	        max = Arrays.stream(points).mapToInt(Point::getX).max().orElse(0);
-	        min = Arrays.stream(points).mapToInt(Point::getX).min().orElse(0);
-	    } else {
-	        max = Arrays.stream(points).mapToInt(Point::getY).max().orElse(0);
-	        min = Arrays.stream(points).mapToInt(Point::getY).min().orElse(0);
-	    }
-
-	    int bucketCount = max - min + 1;
-
-	    @SuppressWarnings("unchecked")
-	    List<Point>[] buckets = new ArrayList[bucketCount];
-	    for (int i = 0; i < bucketCount; i++) {
-	        buckets[i] = new ArrayList<>();
-	    }
-
-	    for (Point point : points) {
-	        int value = Point.xORy ? point.getX() : point.getY();
-	        int bucketIndex = value - min;
-	        buckets[bucketIndex].add(point);
-	    }
-
-	    for (int i = 0; i < bucketCount; i++) {
-	        Collections.sort(buckets[i], pointComparator);
-	    }
-
-	    int currentIndex = 0;
-	    for (int i = 0; i < bucketCount; i++) {
-	        for (Point point : buckets[i]) {
-	            points[currentIndex] = point;
-	            currentIndex++;
-	        }
-	    }
+		int size = points.length;
+		int[] keys = new int[size];
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+
+		// Extracts the keys and finds their range in one pass.
+		for (int i = 0; i < size; i++) {
+			int key = pointKey.applyAsInt(points[i]);
+			keys[i] = key;
+			min = Math.min(min, key);
+			max = Math.max(max, key);
+		}
+
+		countAllocation(size, OperationCounter.INT_BYTES);  // keys[]
+		if (min == max) {
+			return;
+		}
+
+		long range = (long) max - min + 1;
+		int bucketCount = (int) Math.min(range, size);
+
+		// Counts the points of every bucket, then turns the counts into bucket starts.
+		int[] starts = new int[bucketCount + 1];
+		for (int i = 0; i < size; i++) {
+			starts[bucket(keys[i], min, range, bucketCount) + 1]++;
+		}
+		for (int b = 0; b < bucketCount; b++) {
+			starts[b + 1] += starts[b];
+		}
+
+		// Scatters the points into their buckets, keeping the input order within a bucket.
+		int[] next = Arrays.copyOf(starts, bucketCount);
+		Point[] output = new Point[size];
+		int[] outputKeys = new int[size];
+		for (int i = 0; i < size; i++) {
+			int index = next[bucket(keys[i], min, range, bucketCount)]++;
+			output[index] = points[i];
+			outputKeys[index] = keys[i];
+		}
+
+		// Sorts every bucket.
+		for (int b = 0; b < bucketCount; b++) {
+			int first = starts[b];
+			int end = starts[b + 1];
+
+			if (end - first <= INSERTION_LIMIT) {
+				insertionSort(output, outputKeys, first, end);
+			}
+			else {
+				Arrays.sort(output, first, end, pointComparator);
+			}
+		}
+
+		System.arraycopy(output, 0, points, 0, size);
+		countAllocation(size, OperationCounter.REFERENCE_BYTES);                  // output[]
+		countAllocation(size + 2L * bucketCount + 1, OperationCounter.INT_BYTES);  // starts, next, outputKeys
+		countWrites(2L * size);
 	}
 
-	
-	
-}
-	
-	
 
+	// Returns the bucket of a key: the range [min, min + range) is cut into bucketCount equal slices.
+	private static int bucket(int key, int min, long range, int bucketCount) {
+		return (int) (((long) key - min) * bucketCount / range);
+	}
+
+
+	// Stable insertion sort of pts[first, end) by the keys kept alongside.
+	private void insertionSort(Point[] pts, int[] keys, int first, int end) {
+		long comparisons = 0;
+		long writes = 0;
+		for (int i = first + 1; i < end; i++) {
+			Point tempPoint = pts[i];
+			int tempKey = keys[i];
+			int j = i - 1;
+
+			while ((j >= first) && (keys[j] > tempKey)) {
+				pts[j + 1] = pts[j];
+				keys[j + 1] = keys[j];
+				j--;
+			}
+			pts[j + 1] = tempPoint;
+			keys[j + 1] = tempKey;
+			comparisons += (j >= first) ? i - j : i - j - 1; // One per shift, plus the one that stopped them.
+			writes += i - j;
+		}
+		countComparisons(comparisons);
+		countWrites(writes);
+	}
+}
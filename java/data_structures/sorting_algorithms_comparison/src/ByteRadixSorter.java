@@ -0,0 +1,174 @@
+package src;
+
+import java.util.function.ToIntFunction;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements LSD radix sort with one byte per digit on the signed int coordinates. The sign bit
+ * of every key is flipped so that negative keys order before positive ones, which covers the full int range
+ * at a fixed cost of at most four passes.
+ *
+ * The keys are extracted once into an int array and sorted together with the indices of their points by
+ * sortKeys(), which PackedRadixSorter shares. The histograms of all four bytes are counted in one pass,
+ * passes in which every key has the same byte are skipped, and the passes alternate between the arrays and
+ * one preallocated pair of buffers. The points themselves are moved once, after the last pass.
+ *
+ */
+
+public class ByteRadixSorter extends AbstractSorter
+{
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input array of points
+	 */
+	public ByteRadixSorter(Point[] pts) {
+		super(pts);
+		algorithm = "byte radix sort";
+	}
+
+
+	/**
+	 * Perform radix sort on the array points[] of the parent class AbstractSorter.
+	 *
+	 */
+	@Override
+	public void sort() {
+		radixSort(points, pointKey, counter);
+	}
+
+
+	/**
+	 * Stable LSD radix sort of pts by the given int key. Shared with the sorters that fall back to radix sort.
+	 *
+	 * @param pts      points to sort in place
+	 * @param key      extracts the sort key of a point
+	 * @param counter  counter of the calling sorter, or null
+	 */
+	static void radixSort(Point[] pts, ToIntFunction<Point> key, OperationCounter counter) {
+		int size = pts.length;
+		int[] keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = key.applyAsInt(pts[i]);
+		}
+
+		if (counter != null) {
+			counter.addAllocation((long) size * OperationCounter.INT_BYTES);
+		}
+		radixSort(pts, keys, counter);
+	}
+
+
+	/**
+	 * Stable LSD radix sort of pts by keys already extracted from them, for a sorter that has extracted the 
+	 * keys before deciding to fall back to radix sort. The keys are reordered along with the points.
+	 *
+	 * @param pts      points to sort in place
+	 * @param keys     keys[i] is the sort key of pts[i]
+	 * @param counter  counter of the calling sorter, or null. The keys are not counted as allocated here.
+	 */
+	static void radixSort(Point[] pts, int[] keys, OperationCounter counter) {
+		int size = pts.length;
+		int[] order = new int[size];  // index in pts of the point that ends up at every position.
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+
+		int passes = sortKeys(keys, order);
+		long allocated = ((long) size + 4 * 256) * OperationCounter.INT_BYTES;
+
+		// Moves every point once, to the position its index was sorted to.
+		if (passes > 0) {
+			Point[] sorted = new Point[size];
+			for (int i = 0; i < size; i++) {
+				sorted[i] = pts[order[i]];
+			}
+			System.arraycopy(sorted, 0, pts, 0, size);
+			allocated += (long) size * (2 * OperationCounter.INT_BYTES + OperationCounter.REFERENCE_BYTES);
+		}
+
+		if (counter != null) {
+			counter.addWrites(passes > 0 ? 2L * size : 0);
+			counter.addAllocation(allocated);
+		}
+	}
+
+
+	/**
+	 * Stable LSD radix sort of keys by their signed value, one byte per pass, moving values[i] along with
+	 * keys[i]. The sign bit is flipped while reading a byte, so negative keys order first. Shared with
+	 * PackedRadixSorter, which moves the other coordinate along, while radixSort() moves point indices.
+	 *
+	 * @param  keys    keys to sort in place
+	 * @param  values  values to reorder like the keys, of the same length
+	 * @return number of passes carried out. Passes in which every key has the same byte are skipped.
+	 */
+	static int sortKeys(int[] keys, int[] values) {
+		int size = keys.length;
+
+		// Counts the occurrences of every byte value at all four byte positions.
+		int[][] counts = new int[4][256];
+		for (int i = 0; i < size; i++) {
+			int key = keys[i] ^ Integer.MIN_VALUE;
+			counts[0][key & 0xFF]++;
+			counts[1][(key >>> 8) & 0xFF]++;
+			counts[2][(key >>> 16) & 0xFF]++;
+			counts[3][key >>> 24]++;
+		}
+
+		int[] srcKeys = keys, srcValues = values;
+		int[] dstKeys = null, dstValues = null;
+		int passes = 0;
+
+		for (int pass = 0; pass < 4; pass++) {
+			int shift = 8 * pass;
+			int[] count = counts[pass];
+
+			// Skips the pass if every key has the same byte here.
+			if (count[((srcKeys[0] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == size) {
+				continue;
+			}
+
+			if (dstKeys == null) {
+				dstKeys = new int[size];
+				dstValues = new int[size];
+			}
+			passes++;
+
+			// Turns the counts into starting positions.
+			int position = 0;
+			for (int b = 0; b < 256; b++) {
+				int c = count[b];
+				count[b] = position;
+				position += c;
+			}
+
+			for (int i = 0; i < size; i++) {
+				int index = count[((srcKeys[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+				dstKeys[index] = srcKeys[i];
+				dstValues[index] = srcValues[i];
+			}
+
+			int[] temp = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = temp;
+			temp = srcValues;
+			srcValues = dstValues;
+			dstValues = temp;
+		}
+
+		// Copies the result back if the last pass ended in the buffers.
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, 0, size);
+			System.arraycopy(srcValues, 0, values, 0, size);
+		}
+		return passes;
+	}
+}
@@ -16,9 +16,16 @@ package src;
  */
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Random;
 import java.util.Scanner; 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class CompareSorters 
@@ -27,19 +34,31 @@ public class CompareSorters
 	 * Repeatedly take integer sequences either randomly generated or read from files. 
 	 * Use them as coordinates to construct points.  Scan these points with respect to their 
 	 * median coordinate point four times, each time using a different sorting algorithm.  
+	 * Key 4 generates the points of a PointDistribution from a seed instead. 
+	 * 
+	 * With the argument --concurrent, the scanners of a trial all run at the same time on a thread pool. 
+	 * With the argument --batch, the remaining arguments configure a non-interactive run that writes 
+	 * CSV or JSON, see CompareSortersBatch. 
 	 * 
 	 * @param args
 	 **/
 	public static void main(String[] args) throws FileNotFoundException, InputMismatchException {		
-		PointScanner[] scanners = new PointScanner[13]; 
+		if (args.length > 0 && args[0].equals("--batch")) {
+			CompareSortersBatch.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		
+		boolean concurrent = (args.length > 0) && args[0].equals("--concurrent");
+		
 		Algorithm[] algos = Algorithm.values(); // Creating algorithm array to iterate through algorithms while iterating through scanners.
+		PointScanner[] scanners = new PointScanner[algos.length]; 
 
 		Random rand = new Random();
 		Scanner scnr = new Scanner(System.in);
 		
 		System.out.println("Performances of Four Sorting Algorithms in Point Scanning");
 		System.out.println();
-		System.out.println("keys: 1 (random integers) 2 (file input) 3 (exit)");
+		System.out.println("keys: 1 (random integers) 2 (file input) 3 (exit) 4 (generated distribution)");
 		
 		int trial = 1; // The number of trials the user has done.
 	
@@ -59,11 +78,8 @@ public class CompareSorters
 					System.out.println("----------------------------------");
 					
 					// Scans and prints stats of sorting results for each algorithm, using a new PointScanner each time. 
-					for (int i = 0; i < scanners.length; i++) {
-						scanners[i] = new PointScanner(points, algos[i]);
-						scanners[i].scan();
-						System.out.println(scanners[i].stats());
-					}
+					createScanners(points, algos, scanners);
+					scanAll(scanners, concurrent);
 				}
 				else if (key == 2) {
 					try {
@@ -74,13 +90,14 @@ public class CompareSorters
 						System.out.println("algorithm   size  time (ns)");
 						System.out.println("----------------------------------");
 						
-						// Scans and prints stats of sorting results for each algorithm, using a new PointScanner each time. 
-						for (int i = 0; i < scanners.length; i++) {
-							scanners[i] = new PointScanner(fileName, algos[i]);
-							scanners[i].scan();
-							System.out.println(scanners[i].stats());
-
-						}		
+						// Reads the file once, then scans and prints stats of sorting results for each algorithm. 
+						PointArray packed = PointArray.fromFile(fileName);
+						Point[] points = new Point[packed.size()];
+						for (int i = 0; i < points.length; i++) {
+							points[i] = packed.get(i);
+						}
+						createScanners(points, algos, scanners);
+						scanAll(scanners, concurrent);
 					}
 					catch (FileNotFoundException e) {
 		                System.out.println("File not found."); // Prints error to allow user to continue trials.
@@ -89,8 +106,28 @@ public class CompareSorters
 				else if (key == 3) {
 					break; // Exit
 				}
+				else if (key == 4) {
+					System.out.println("Distribution " + Arrays.toString(PointDistribution.values()) + ": ");
+					PointDistribution dist = PointDistribution.valueOf(scnr.next().toUpperCase());
+					System.out.println("Enter number of points: ");
+					int numPoints = scnr.nextInt();
+					System.out.println("Enter seed: ");
+					long seed = scnr.nextLong();
+					
+					if (numPoints < 1) {
+						throw new IllegalArgumentException("Invalid number of points");
+					}
+					Point[] points = dist.generate(numPoints, seed); // Same points for the same seed.
+					
+					System.out.println();
+					System.out.println("algorithm   size  time (ns)");
+					System.out.println("----------------------------------");
+					
+					createScanners(points, algos, scanners);
+					scanAll(scanners, concurrent);
+				}
 				else {
-					throw new InputMismatchException("Invalid key."); // Throw error if key is not 1, 2, or 3.
+					throw new InputMismatchException("Invalid key."); // Throw error if key is not 1, 2, 3, or 4.
 				}
 				
 				System.out.println("----------------------------------");
@@ -104,6 +141,77 @@ public class CompareSorters
 	}
 	
 	
+	/**
+	 * Creates one scanner per algorithm on the same points. Every scanner but the last sorts its own copy 
+	 * of the points. The last one takes over the array points itself, which the caller no longer needs, so 
+	 * a trial makes one copy fewer than it has algorithms. 
+	 * 
+	 * @param points    input points, given up by the caller
+	 * @param algos
+	 * @param scanners  receives the scanners, one per algorithm
+	 */
+	private static void createScanners(Point[] points, Algorithm[] algos, PointScanner[] scanners) {
+		for (int i = 0; i < scanners.length; i++) {
+			scanners[i] = new PointScanner(points, algos[i], i < scanners.length - 1);
+		}
+	}
+	
+	
+	/**
+	 * Scans with every scanner and prints their stats in order. If concurrent is true, all scanners run 
+	 * at the same time, one per thread. Each scanner sorts its own copy of the points, so the results 
+	 * are the same as in a sequential run. 
+	 * 
+	 * @param scanners
+	 * @param concurrent
+	 */
+	private static void scanAll(PointScanner[] scanners, boolean concurrent) {
+		if (!concurrent) {
+			for (PointScanner scanner : scanners) {
+				scanner.scan();
+				System.out.println(scanner.stats());
+			}
+			return;
+		}
+		
+		ExecutorService pool = Executors.newFixedThreadPool(scanners.length);
+		
+		try {
+			List<Future<?>> scans = new ArrayList<Future<?>>();
+			for (PointScanner scanner : scanners) {
+				scans.add(pool.submit(scanner::scan));
+			}
+			
+			// Waits for every scan and rethrows the failure of a scan in this thread.
+			for (Future<?> scan : scans) {
+				try {
+					scan.get();
+				}
+				catch (ExecutionException e) {
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		for (PointScanner scanner : scanners) {
+			System.out.println(scanner.stats());
+		}
+	}
+	
+	
 	/**
 	 * This method generates a given number of random points.
 	 * The coordinates of these points are pseudo-random numbers within the range 
@@ -120,16 +228,8 @@ public class CompareSorters
 			throw new IllegalArgumentException("Invalid number of points");
 		}
 		
-		Point[] randPoints = new Point[numPts]; 
-		
-		for (int i = 0; i < randPoints.length; i++) {
-			// Constructs points in the point array with consecutive random numbers as x and y coordinates respectively.
-			int x = rand.nextInt(101) - 50;
-			int y = rand.nextInt(101) - 50;
-			randPoints[i] = new Point(x, y);
-		}
-		
-		return randPoints;
+		// Draws a seed from rand, so that a seeded rand still gives the same points.
+		return PointDistribution.UNIFORM.generate(numPts, rand.nextLong());
 	}
 	
 }
@@ -0,0 +1,347 @@
+package src;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class is the non-interactive mode of CompareSorters, for scripted runs such as a nightly performance
+ * job. It scans generated points with every chosen algorithm over a grid of input sizes and distributions,
+ * and writes the scan times as CSV or JSON together with a description of the machine.
+ *
+ * Every cell (algorithm, distribution, size) is scanned warmup times per seed without being recorded, and
+ * then repetitions times per seed. The recorded times are the scanTime of PointScanner, the number
+ * PointScanner.stats() prints, and are summarized by their minimum, median, 95th percentile and maximum.
+ * Percentiles use the nearest rank.
+ *
+ * After the recorded scans, every seed is scanned once more with operation counting on (see
+ * OperationCounter). That scan is not timed. Its comparisons, swaps, writes and allocated bytes are
+ * averaged over the seeds and reported next to the times. Every algorithm counts its comparisons, so a 0
+ * means that the algorithm compares nothing, as counting and radix sort do.
+ *
+ * The recorded scans also measure heap allocations and garbage collections (see ResourceUsage), outside
+ * their timed sections. The output has the allocated bytes of one scan, averaged over the recorded scans,
+ * and the collections and collection time of all recorded scans together.
+ *
+ * Usage: java -cp <classes> src.CompareSorters --batch [options]
+ *
+ *     --algorithms MergeSort,QuickSort  algorithms to scan with (default: every Algorithm value)
+ *     --sizes 1000,10000                numbers of points (default: 1000,10000,100000)
+ *     --distributions UNIFORM,SORTED    input distributions (default: UNIFORM)
+ *     --seeds 1,2,3                     seeds of the input generator, one input per seed (default: 1)
+ *     --repetitions 10                  recorded scans per seed (default: 5)
+ *     --warmup 3                        unrecorded scans per seed before the recorded ones (default: 2)
+ *     --quadratic-limit 10000           largest size given to the quadratic algorithms (default: 10000)
+ *     --format csv                      csv or json (default: csv)
+ *     --output results.csv              output file (default: standard output)
+ *
+ * A cell that is skipped or fails has a status other than "ok" and no times.
+ *
+ */
+
+public class CompareSortersBatch
+{
+	private List<Algorithm> algorithms = Arrays.asList(Algorithm.values());
+	private int[] sizes = { 1000, 10000, 100000 };
+	private PointDistribution[] distributions = { PointDistribution.UNIFORM };
+	private long[] seeds = { 1 };
+	private int repetitions = 5;
+	private int warmup = 2;
+	private int quadraticLimit = 10000;
+	private String format = "csv";
+	private String output = null;
+
+
+	/**
+	 * Summary of the scans of one cell.
+	 */
+	private static class Result
+	{
+		Algorithm algorithm;
+		PointDistribution distribution;
+		int size;
+		String status = "ok";
+		long[] times = new long[0];  // recorded scan times in nanoseconds, sorted.
+		Point mcp;                   // MCP of the last scan.
+		long comparisons, swaps, writes, allocatedBytes;  // operations of one scan, averaged over the seeds.
+		long heapBytes;                                   // heap allocated by one recorded scan, averaged, or -1.
+		long gcCount, gcMillis;                           // collections during all recorded scans.
+
+		long percentile(double p) {
+			return times[Math.max(0, (int) Math.ceil(p * times.length) - 1)];
+		}
+	}
+
+
+	/**
+	 * Runs the batch.
+	 *
+	 * @param args  command line options, see the class comment
+	 * @throws FileNotFoundException    if the output file cannot be created
+	 * @throws IllegalArgumentException if an option is unknown or malformed
+	 */
+	public static void main(String[] args) throws FileNotFoundException, IllegalArgumentException {
+		CompareSortersBatch batch = new CompareSortersBatch();
+		batch.parseOptions(args);
+
+		List<Result> results = batch.run();
+
+		try (PrintStream out = (batch.output != null) ? new PrintStream(batch.output) : null) {
+			PrintStream target = (out != null) ? out : System.out;
+			if (batch.format.equals("json")) {
+				batch.writeJson(results, target);
+			}
+			else {
+				batch.writeCsv(results, target);
+			}
+			target.flush();
+		}
+	}
+
+
+	// Reads the command line options into the instance variables.
+	private void parseOptions(String[] args) throws IllegalArgumentException {
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+			}
+			String value = args[i + 1];
+
+			switch (args[i]) {
+				case "--algorithms":
+					algorithms = Arrays.stream(value.split(",")).map(Algorithm::valueOf).collect(Collectors.toList());
+					break;
+				case "--sizes":
+					sizes = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+					break;
+				case "--distributions":
+					distributions = Arrays.stream(value.split(",")).map(PointDistribution::valueOf).toArray(PointDistribution[]::new);
+					break;
+				case "--seeds":
+					seeds = Arrays.stream(value.split(",")).mapToLong(Long::parseLong).toArray();
+					break;
+				case "--repetitions":
+					repetitions = Integer.parseInt(value);
+					break;
+				case "--warmup":
+					warmup = Integer.parseInt(value);
+					break;
+				case "--quadratic-limit":
+					quadraticLimit = Integer.parseInt(value);
+					break;
+				case "--format":
+					format = value;
+					break;
+				case "--output":
+					output = value;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		if (repetitions < 1 || warmup < 0 || seeds.length == 0) {
+			throw new IllegalArgumentException("Invalid number of repetitions, warmup rounds, or seeds");
+		}
+		for (int size : sizes) {
+			if (size < 1) {
+				throw new IllegalArgumentException("Invalid number of points " + size);
+			}
+		}
+		if (!format.equals("csv") && !format.equals("json")) {
+			throw new IllegalArgumentException("Format must be csv or json");
+		}
+	}
+
+
+	// Scans every cell of the grid. Progress goes to standard error, so that standard output holds the results.
+	private List<Result> run() {
+		List<Result> results = new ArrayList<Result>();
+
+		for (Algorithm algo : algorithms) {
+			for (PointDistribution dist : distributions) {
+				for (int size : sizes) {
+					Result result = new Result();
+					result.algorithm = algo;
+					result.distribution = dist;
+					result.size = size;
+					results.add(result);
+
+					if (SorterBenchmark.isQuadratic(algo.name()) && size > quadraticLimit) {
+						result.status = "skipped";
+						continue;
+					}
+
+					long[] times = new long[seeds.length * repetitions];
+					int count = 0;
+					try {
+						for (long seed : seeds) {
+							Point[] points = dist.generate(size, seed);
+
+							for (int i = 0; i < warmup + repetitions; i++) {
+								PointScanner scanner = new PointScanner(points, algo);
+								scanner.setMeasureResources(i >= warmup);
+								scanner.scan();
+								if (i >= warmup) {
+									times[count++] = scanner.scanTime;
+									result.mcp = scanner.getMedianCoordinatePoint();
+
+									ResourceUsage usage = scanner.getResourceUsage();
+									result.heapBytes = (result.heapBytes < 0 || usage.getAllocatedBytes() < 0)
+											? -1 : result.heapBytes + usage.getAllocatedBytes();
+									result.gcCount += usage.getGcCount();
+									result.gcMillis += usage.getGcTimeMillis();
+								}
+							}
+
+							PointScanner counting = new PointScanner(points, algo);
+							counting.setCountOperations(true);
+							counting.scan();
+							OperationCounter counter = counting.getOperationCounter();
+							result.comparisons += counter.getComparisons();
+							result.swaps += counter.getSwaps();
+							result.writes += counter.getWrites();
+							result.allocatedBytes += counter.getAllocatedBytes();
+						}
+						Arrays.sort(times);
+						result.times = times;
+						result.comparisons /= seeds.length;
+						result.swaps /= seeds.length;
+						result.writes /= seeds.length;
+						result.allocatedBytes /= seeds.length;
+						result.heapBytes = (result.heapBytes < 0) ? -1 : result.heapBytes / times.length;
+					}
+					catch (OutOfMemoryError | StackOverflowError | RuntimeException e) {
+						result.status = e.getClass().getSimpleName();
+					}
+
+					System.err.println(algo + " " + dist + " " + size + " " + result.status);
+				}
+			}
+		}
+
+		return results;
+	}
+
+
+	// Writes the metadata as comment lines, then a header and one row per cell.
+	private void writeCsv(List<Result> results, PrintStream out) {
+		for (String[] entry : metadata()) {
+			out.println("# " + entry[0] + ": " + entry[1]);
+		}
+		out.println("algorithm,distribution,size,samples,min_ns,median_ns,p95_ns,max_ns,mcp_x,mcp_y,"
+				+ "comparisons,swaps,writes,allocated_bytes,heap_bytes,gc_count,gc_ms,status");
+
+		for (Result r : results) {
+			StringBuilder row = new StringBuilder();
+			row.append(r.algorithm).append(',').append(r.distribution).append(',').append(r.size).append(',');
+			row.append(r.times.length).append(',');
+
+			if (r.times.length > 0) {
+				row.append(r.times[0]).append(',').append(r.percentile(0.5)).append(',')
+						.append(r.percentile(0.95)).append(',').append(r.times[r.times.length - 1]).append(',')
+						.append(r.mcp.getX()).append(',').append(r.mcp.getY()).append(',')
+						.append(r.comparisons).append(',').append(r.swaps).append(',')
+						.append(r.writes).append(',').append(r.allocatedBytes).append(',')
+						.append(r.heapBytes).append(',').append(r.gcCount).append(',').append(r.gcMillis).append(',');
+			}
+			else {
+				row.append(",,,,,,,,,,,,,");
+			}
+			row.append(r.status);
+			out.println(row);
+		}
+	}
+
+
+	// Writes an object with the metadata and an array of one object per cell.
+	private void writeJson(List<Result> results, PrintStream out) {
+		out.println("{");
+		out.println("  \"metadata\": {");
+		List<String[]> metadata = metadata();
+		for (int i = 0; i < metadata.size(); i++) {
+			out.println("    " + quote(metadata.get(i)[0]) + ": " + quote(metadata.get(i)[1])
+					+ (i + 1 < metadata.size() ? "," : ""));
+		}
+		out.println("  },");
+
+		out.println("  \"results\": [");
+		for (int i = 0; i < results.size(); i++) {
+			Result r = results.get(i);
+			StringBuilder row = new StringBuilder("    {");
+			row.append("\"algorithm\": ").append(quote(r.algorithm.name()));
+			row.append(", \"distribution\": ").append(quote(r.distribution.name()));
+			row.append(", \"size\": ").append(r.size);
+			row.append(", \"samples\": ").append(r.times.length);
+
+			if (r.times.length > 0) {
+				row.append(", \"min_ns\": ").append(r.times[0]);
+				row.append(", \"median_ns\": ").append(r.percentile(0.5));
+				row.append(", \"p95_ns\": ").append(r.percentile(0.95));
+				row.append(", \"max_ns\": ").append(r.times[r.times.length - 1]);
+				row.append(", \"mcp\": [").append(r.mcp.getX()).append(", ").append(r.mcp.getY()).append(']');
+				row.append(", \"comparisons\": ").append(r.comparisons);
+				row.append(", \"swaps\": ").append(r.swaps);
+				row.append(", \"writes\": ").append(r.writes);
+				row.append(", \"allocated_bytes\": ").append(r.allocatedBytes);
+				row.append(", \"heap_bytes\": ").append(r.heapBytes);
+				row.append(", \"gc_count\": ").append(r.gcCount);
+				row.append(", \"gc_ms\": ").append(r.gcMillis);
+			}
+			row.append(", \"status\": ").append(quote(r.status)).append('}');
+			out.println(row + (i + 1 < results.size() ? "," : ""));
+		}
+		out.println("  ]");
+		out.println("}");
+	}
+
+
+	// Describes the run: the machine, the JVM, and the options of the batch.
+	private List<String[]> metadata() {
+		Runtime runtime = Runtime.getRuntime();
+		List<String[]> metadata = new ArrayList<String[]>();
+
+		metadata.add(new String[] { "timestamp", Instant.now().toString() });
+		metadata.add(new String[] { "jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version") });
+		metadata.add(new String[] { "java_version", System.getProperty("java.version") });
+		metadata.add(new String[] { "jvm_args", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()) });
+		metadata.add(new String[] { "os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch") });
+		metadata.add(new String[] { "cores", Integer.toString(runtime.availableProcessors()) });
+		metadata.add(new String[] { "max_heap_bytes", Long.toString(runtime.maxMemory()) });
+		metadata.add(new String[] { "seeds", Arrays.toString(seeds) });
+		metadata.add(new String[] { "repetitions", Integer.toString(repetitions) });
+		metadata.add(new String[] { "warmup", Integer.toString(warmup) });
+
+		return metadata;
+	}
+
+
+	// Returns s as a JSON string literal.
+	private static String quote(String s) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : s.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
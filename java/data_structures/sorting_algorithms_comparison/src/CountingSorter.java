@@ -9,14 +9,24 @@ package src;
 
 /**
  * 
- * This class implements the version of the counting sort algorithm presented in the lecture.   
+ * This class implements counting sort on the coordinate selected by the comparator.   
+ * 
+ * One pass extracts the keys and their minimum and maximum, an int histogram over [min, max] counts them, 
+ * and a stable scatter writes the points to their positions. If the key range is more than rangeFactor 
+ * times the number of points, the histogram would be mostly empty, and the sort falls back to the byte 
+ * radix sort of ByteRadixSorter instead. It also falls back if the range is larger than the largest int
+ * array the JVM can allocate, which a large rangeFactor would otherwise allow. The fallback sorts the keys 
+ * already extracted, so it costs no second extraction pass.
  *
  */
 
 public class CountingSorter extends AbstractSorter
 {
-	
-	// Other private instance variables if you need ... 
+	public static final int DEFAULT_RANGE_FACTOR = 8;  // default largest range per point counted directly.
+
+	private static final int MAX_RANGE = Integer.MAX_VALUE - 8;  // largest count array the JVM can allocate.
+
+	private final int rangeFactor;  // ranges above rangeFactor * n fall back to radix sort.
 		
 	/** 
 	 * Constructor takes an array of points.  It invokes the superclass constructor, and also 
@@ -25,7 +35,23 @@ public class CountingSorter extends AbstractSorter
 	 * @param pts   input array of integers
 	 */
 	public CountingSorter(Point[] pts){
+		this(pts, DEFAULT_RANGE_FACTOR);
+	}
+
+
+	/**
+	 * Constructor takes an array of points and the range guard.
+	 *
+	 * @param pts          input array of points
+	 * @param rangeFactor  largest key range, as a multiple of the number of points, to count directly
+	 * @throws IllegalArgumentException if rangeFactor < 1
+	 */
+	public CountingSorter(Point[] pts, int rangeFactor) throws IllegalArgumentException {
 		super(pts);
+		if (rangeFactor < 1) {
+			throw new IllegalArgumentException("Range factor must be at least 1");
+		}
+		this.rangeFactor = rangeFactor;
 		algorithm = "counting sort";
 	}
 		
@@ -36,52 +62,49 @@ public class CountingSorter extends AbstractSorter
 	 */
 	@Override
 	public void sort() {
-		// Find the maximum and minimum values based on the custom comparator
-	    Point maxPoint = points[0];
-	    Point minPoint = points[0];
-
-	    for (Point point : points) {
-	        if (pointComparator.compare(point, maxPoint) > 0) {
-	            maxPoint = point;
-	        }
-
-	        if (pointComparator.compare(point, minPoint) < 0) {
-	            minPoint = point;
-	        }
-	    }
-
-	    int range = pointComparator.compare(maxPoint, minPoint) + 1;
-
-	    // Create a count array to store the frequency of each element
-	    int[] countArray = new int[range];
-
-	    // Count the occurrences of each element in the input array
-	    for (Point point : points) {
-	        int index = pointComparator.compare(point, minPoint);
-	        countArray[index]++;
-	    }
-
-	    // Update the count array to store the actual positions of elements
-	    for (int i = 1; i < range; i++) {
-	        countArray[i] += countArray[i - 1];
-	    }
-
-	    // Create an output array to store the sorted elements
-	    Point[] output = new Point[points.length];
-
-	    // Build the output array based on the count array
-	    for (int i = points.length - 1; i >= 0; i--) {
-	        int index = pointComparator.compare(points[i], minPoint);
-	        output[countArray[index] - 1] = points[i];
-	        countArray[index]--;
-	    }
-
-	    // Copy the sorted elements back to the original array
-	    System.arraycopy(output, 0, points, 0, points.length);
-	}
+		int size = points.length;
+		int[] keys = new int[size];
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+
+		// Extracts the keys and finds the minimum and maximum in one pass.
+		for (int i = 0; i < size; i++) {
+			int key = pointKey.applyAsInt(points[i]);
+			keys[i] = key;
+			min = Math.min(min, key);
+			max = Math.max(max, key);
+		}
+
+		countAllocation(size, OperationCounter.INT_BYTES);  // keys[]
+
+		long range = (long) max - min + 1;
+		if (range > Math.min((long) rangeFactor * size, MAX_RANGE)) {
+			ByteRadixSorter.radixSort(points, keys, counter);  // Reuses the keys instead of extracting them again.
+			return;
+		}
 
-	
-	
+		// Counts the occurrences of every key, then turns the counts into starting positions.
+		int[] countArray = new int[(int) range];
+		for (int i = 0; i < size; i++) {
+			countArray[keys[i] - min]++;
+		}
+
+		int position = 0;
+		for (int i = 0; i < countArray.length; i++) {
+			int count = countArray[i];
+			countArray[i] = position;
+			position += count;
+		}
+
+		// Places every point at the next position of its key, keeping the input order of equal keys.
+		Point[] output = new Point[size];
+		for (int i = 0; i < size; i++) {
+			output[countArray[keys[i] - min]++] = points[i];
+		}
+
+		System.arraycopy(output, 0, points, 0, size);
+		countAllocation(range, OperationCounter.INT_BYTES);
+		countAllocation(size, OperationCounter.REFERENCE_BYTES);
+		countWrites(2L * size);
+	}
 }
-	
-	
\ No newline at end of file
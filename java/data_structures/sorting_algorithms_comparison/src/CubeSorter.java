@@ -1,9 +1,6 @@
-
 package src;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  *  
@@ -14,13 +11,62 @@ import java.util.List;
 /**
  * 
  * This class implements the cubesort algorithm.   
+ * 
+ * The points are inserted one by one into a B-tree-like structure of "cubes". A leaf cube holds up to 
+ * LEAF_SIZE points in key order, an index cube holds up to INDEX_SIZE child cubes, and a cube that 
+ * overflows splits into two halves. The leaves are linked in key order, so the sorted points are read 
+ * off by walking the leaf list. Every cube stays at least half full, so memory is O(n) whatever the 
+ * range of the coordinates.
+ * 
+ * The sort is adaptive: a point not smaller than every point so far is appended to the last leaf without 
+ * searching the tree, so ascending input costs O(n). Equal keys keep their input order.
  *
  */
 
 public class CubeSorter extends AbstractSorter
 {
+	private static final int LEAF_SIZE = 128;   // maximum number of points in a leaf cube.
+	private static final int INDEX_SIZE = 64;   // maximum number of children of an index cube.
+
+	/**
+	 * A cube of the tree. A leaf cube has points and keys; an index cube has children and the separating 
+	 * keys, where every key in children[i + 1] is >= keys[i]. Arrays have one spare slot for the overflow 
+	 * that triggers a split.
+	 */
+	private static class Cube
+	{
+		int size;           // number of points of a leaf, or number of children of an index cube.
+		int[] keys;
+		Point[] points;     // leaf only.
+		Cube[] children;    // index cube only.
+		Cube next;          // leaf only: the following leaf in key order.
+
+		static Cube leaf() {
+			Cube cube = new Cube();
+			cube.keys = new int[LEAF_SIZE + 1];
+			cube.points = new Point[LEAF_SIZE + 1];
+			return cube;
+		}
+
+		static Cube index() {
+			Cube cube = new Cube();
+			cube.keys = new int[INDEX_SIZE];
+			cube.children = new Cube[INDEX_SIZE + 1];
+			return cube;
+		}
+
+		boolean isLeaf() {
+			return children == null;
+		}
+	}
+
+	private Cube root;
+	private Cube lastLeaf;   // leaf holding the largest keys.
+	private int maxKey;      // largest key inserted so far.
+	private int splitKey;    // separator produced by the last split.
+	private long moves;      // points moved within and between leaves, counted at the end of sort().
+	private long comparisons; // key comparisons, counted at the end of sort().
 
-	// Other private instance variables if needed
 	
 	/** 
 	 * Constructor takes an array of points.  It invokes the superclass constructor, and also 
@@ -40,56 +86,156 @@ public class CubeSorter extends AbstractSorter
 	 */
 	@Override
 	public void sort() {
-	    int min, max;
-
-	    // Find the minimum and maximum values based on x or y coordinates
-	    if (Point.xORy) {
-	        min = Arrays.stream(points).mapToInt(Point::getX).min().orElse(0);
-	        max = Arrays.stream(points).mapToInt(Point::getX).max().orElse(0);
-	    } else {
-	        min = Arrays.stream(points).mapToInt(Point::getY).min().orElse(0);
-	        max = Arrays.stream(points).mapToInt(Point::getY).max().orElse(0);
-	    }
-
-	    // Calculate the range of values
-	    int range = max - min + 1;
-
-	    // Create a 3D "cube" as a 3D array of Lists
-	    @SuppressWarnings("unchecked")
-		List<Point>[][] cube = new ArrayList[range][range];
-
-	    // Initialize the cube with empty lists
-	    for (int i = 0; i < range; i++) {
-	        for (int j = 0; j < range; j++) {
-	            cube[i][j] = new ArrayList<>();
-	        }
-	    }
-
-	    // Place points in the cube based on their coordinates
-	    for (Point point : points) {
-	        int x, y;
-
-	        if (Point.xORy) {
-	            x = point.getX() - min;
-	            y = point.getY() - min;
-	        } else {
-	            x = point.getY() - min;
-	            y = point.getX() - min;
-	        }
-
-	        cube[x][y].add(point);
-	    }
-
-	    // Flatten the cube back into the original array
-	    int index = 0;
-	    for (int i = 0; i < range; i++) {
-	        for (int j = 0; j < range; j++) {
-	            for (Point point : cube[i][j]) {
-	                points[index++] = point;
-	            }
-	        }
-	    }
+		Cube firstLeaf = newLeaf();
+		root = lastLeaf = firstLeaf;
+		maxKey = Integer.MIN_VALUE;
+		moves = 0;
+		comparisons = points.length; // Every key is compared with maxKey.
+
+		for (Point point : points) {
+			int key = pointKey.applyAsInt(point);
+
+			// Appends in place while the input ascends.
+			if (key >= maxKey && lastLeaf.size < LEAF_SIZE) {
+				lastLeaf.keys[lastLeaf.size] = key;
+				lastLeaf.points[lastLeaf.size++] = point;
+			}
+			else {
+				insert(key, point);
+			}
+			maxKey = Math.max(maxKey, key);
+		}
+
+		// Walks the leaves back into points[].
+		int index = 0;
+		for (Cube leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+			System.arraycopy(leaf.points, 0, points, index, leaf.size);
+			index += leaf.size;
+		}
+		countComparisons(comparisons);
+		countWrites(2L * points.length + moves); // Every point is placed into a leaf once and copied back once.
+
+		root = lastLeaf = null;
+	}
+
+
+	// Inserts a point below the root, growing a new root if the root splits.
+	private void insert(int key, Point point) {
+		Cube right = insert(root, key, point);
+
+		if (right != null) {
+			Cube newRoot = newIndex();
+			newRoot.children[0] = root;
+			newRoot.children[1] = right;
+			newRoot.keys[0] = splitKey;
+			newRoot.size = 2;
+			root = newRoot;
+		}
+	}
+
+
+	/**
+	 * Inserts a point into the subtree of cube, after every point with an equal key.
+	 * 
+	 * @return  the new right sibling if cube split, with its separator in splitKey, or null
+	 */
+	private Cube insert(Cube cube, int key, Point point) {
+		if (cube.isLeaf()) {
+			int position = upperBound(cube.keys, cube.size, key);
+			System.arraycopy(cube.keys, position, cube.keys, position + 1, cube.size - position);
+			System.arraycopy(cube.points, position, cube.points, position + 1, cube.size - position);
+			moves += cube.size - position;
+			cube.keys[position] = key;
+			cube.points[position] = point;
+			cube.size++;
+
+			return (cube.size > LEAF_SIZE) ? splitLeaf(cube) : null;
+		}
+
+		int child = upperBound(cube.keys, cube.size - 1, key);
+		Cube right = insert(cube.children[child], key, point);
+		if (right == null) {
+			return null;
+		}
+
+		// Adds the new child after the one that split.
+		System.arraycopy(cube.keys, child, cube.keys, child + 1, cube.size - 1 - child);
+		System.arraycopy(cube.children, child + 1, cube.children, child + 2, cube.size - 1 - child);
+		cube.keys[child] = splitKey;
+		cube.children[child + 1] = right;
+		cube.size++;
+
+		return (cube.size > INDEX_SIZE) ? splitIndex(cube) : null;
 	}
 
 
+	// Moves the upper half of an overflowing leaf into a new leaf.
+	private Cube splitLeaf(Cube cube) {
+		Cube right = newLeaf();
+		int half = cube.size / 2;
+
+		right.size = cube.size - half;
+		System.arraycopy(cube.keys, half, right.keys, 0, right.size);
+		System.arraycopy(cube.points, half, right.points, 0, right.size);
+		moves += right.size;
+		Arrays.fill(cube.points, half, cube.size, null);
+		cube.size = half;
+
+		right.next = cube.next;
+		cube.next = right;
+		if (cube == lastLeaf) {
+			lastLeaf = right;
+		}
+
+		splitKey = right.keys[0];
+		return right;
+	}
+
+
+	// Moves the upper half of the children of an overflowing index cube into a new index cube.
+	private Cube splitIndex(Cube cube) {
+		Cube right = newIndex();
+		int half = cube.size / 2;
+
+		right.size = cube.size - half;
+		System.arraycopy(cube.children, half, right.children, 0, right.size);
+		System.arraycopy(cube.keys, half, right.keys, 0, right.size - 1);
+		Arrays.fill(cube.children, half, cube.size, null);
+
+		splitKey = cube.keys[half - 1];  // separates the two halves, moves up to the parent.
+		cube.size = half;
+		return right;
+	}
+
+
+	// Creates a leaf cube and counts its arrays.
+	private Cube newLeaf() {
+		countAllocation(LEAF_SIZE + 1, OperationCounter.INT_BYTES + OperationCounter.REFERENCE_BYTES);
+		return Cube.leaf();
+	}
+
+
+	// Creates an index cube and counts its arrays.
+	private Cube newIndex() {
+		countAllocation(INDEX_SIZE, OperationCounter.INT_BYTES);
+		countAllocation(INDEX_SIZE + 1, OperationCounter.REFERENCE_BYTES);
+		return Cube.index();
+	}
+
+
+	// Returns the first index in keys[0, size) whose key is greater than key.
+	private int upperBound(int[] keys, int size, int key) {
+		int low = 0, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			comparisons++;
+			if (keys[middle] <= key) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
 }
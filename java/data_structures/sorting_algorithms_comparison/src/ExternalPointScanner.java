@@ -0,0 +1,445 @@
+package src;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class determines the exact median coordinate point (MCP) of a point file that does not fit in memory,
+ * by external sorting. It gives the same MCP as PointScanner on the same file.
+ *
+ *     a) The file is streamed in chunks that fit into the memory budget. Each chunk is sorted by x and then
+ *        by y with the sorter of the chosen algorithm, and its x- and y-coordinates are written as two
+ *        binary runs of sorted ints to a temporary directory.
+ *     b) The runs of each axis are merged by a heap of the run heads. The merge stops at index n/2, the
+ *        index of the median in the sorted coordinates. If there are more runs than read buffers fit into
+ *        the budget, groups of runs are first merged into longer runs.
+ *
+ * If the whole file fits into one chunk, no runs are written. The run files and the temporary directory
+ * are deleted when the scan ends, whether it succeeds or fails.
+ *
+ */
+
+public class ExternalPointScanner
+{
+	public static final long MIN_MEMORY_BUDGET = 1 << 20;  // smallest accepted memory budget in bytes.
+
+	private static final int BUFFER_SIZE = 1 << 16;   // bytes of every run read or write buffer.
+	private static final int BYTES_PER_POINT = 48;    // estimated heap bytes per chunk point: the Point, the
+	                                                  // chunk and sorter references, and sorter workspace.
+
+	private final String inputFileName;
+	private final Algorithm sortingAlgorithm;
+	private final long memoryBudget;     // heap bytes the scan may use.
+	private final Path tempParent;       // directory for the run directory, or null for the system default.
+
+	private Point[] chunk;               // points read but not yet written as runs.
+	private int chunkSize;               // number of points in chunk.
+	private Path runDirectory;           // temporary directory of the runs during a scan.
+	private List<Path> xRuns;            // sorted runs of x-coordinates.
+	private List<Path> yRuns;            // sorted runs of y-coordinates.
+	private ByteBuffer writeBuffer;      // buffer shared by all run writers.
+	private String algorithm;            // name of the sorter used for the chunks.
+
+	private Point medianCoordinatePoint;
+	private long size;                   // number of points in the file.
+
+	protected long scanTime;             // execution time in nanoseconds.
+
+
+	/**
+	 * Constructs a scanner that keeps its runs in the system's temporary directory.
+	 *
+	 * @param inputFileName
+	 * @param algo          algorithm that sorts the chunks
+	 * @param memoryBudget  heap bytes the scan may use, at least MIN_MEMORY_BUDGET
+	 * @throws IllegalArgumentException if algo does not sort, or memoryBudget < MIN_MEMORY_BUDGET
+	 */
+	public ExternalPointScanner(String inputFileName, Algorithm algo, long memoryBudget) throws IllegalArgumentException {
+		this(inputFileName, algo, memoryBudget, null);
+	}
+
+
+	/**
+	 * Constructs a scanner that keeps its runs in a new directory under tempDirectory.
+	 *
+	 * @param inputFileName
+	 * @param algo           algorithm that sorts the chunks
+	 * @param memoryBudget   heap bytes the scan may use, at least MIN_MEMORY_BUDGET
+	 * @param tempDirectory  directory for the runs, or null for the system's temporary directory
+	 * @throws IllegalArgumentException if algo does not sort, or memoryBudget < MIN_MEMORY_BUDGET
+	 */
+	public ExternalPointScanner(String inputFileName, Algorithm algo, long memoryBudget, Path tempDirectory)
+			throws IllegalArgumentException {
+		if (algo == null || algo == Algorithm.IntroSelect) {
+			throw new IllegalArgumentException("External sorting needs a sorting algorithm");
+		}
+		if (memoryBudget < MIN_MEMORY_BUDGET) {
+			throw new IllegalArgumentException("Memory budget must be at least " + MIN_MEMORY_BUDGET + " bytes");
+		}
+		this.inputFileName = inputFileName;
+		this.sortingAlgorithm = algo;
+		this.memoryBudget = memoryBudget;
+		this.tempParent = tempDirectory;
+	}
+
+
+	/**
+	 * Sorts the file in chunks, writes the runs, and merges them up to the median of each axis.
+	 *
+	 * Half of the memory budget holds the chunk, and the rest the read block and the run buffers.
+	 *
+	 * @throws FileNotFoundException    if the input file does not exist
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 * @throws IllegalStateException    if the input file contains no points
+	 * @throws UncheckedIOException     if the runs cannot be written or read
+	 */
+	public void scan() throws FileNotFoundException, InputMismatchException, IllegalStateException {
+		long startTime = System.nanoTime();
+
+		chunk = new Point[(int) Math.min(Integer.MAX_VALUE - 8, memoryBudget / 2 / BYTES_PER_POINT)];
+		chunkSize = 0;
+		xRuns = new ArrayList<Path>();
+		yRuns = new ArrayList<Path>();
+		algorithm = null;
+		int blockSize = (int) Math.min(1 << 22, memoryBudget / 16);
+		int fanIn = (int) Math.max(2, memoryBudget / 2 / BUFFER_SIZE);
+
+		try {
+			runDirectory = (tempParent != null) ? Files.createTempDirectory(tempParent, "mcp-runs")
+					: Files.createTempDirectory("mcp-runs");
+			writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+			size = PointFileReader.stream(inputFileName, blockSize, pts -> {
+				for (int i = 0; i < pts.size(); i++) {
+					chunk[chunkSize++] = pts.get(i);
+					if (chunkSize == chunk.length) {
+						spill();
+					}
+				}
+			});
+
+			if (size == 0) {
+				throw new IllegalStateException("Input file " + inputFileName + " contains no points");
+			}
+
+			if (xRuns.isEmpty()) {
+				// Everything fit into one chunk, so it is sorted in memory as PointScanner does.
+				AbstractSorter sorter = PointScanner.createSorter(sortingAlgorithm, Arrays.copyOf(chunk, chunkSize));
+				algorithm = sorter.algorithm;
+				sorter.setComparator(0);
+				sorter.sort();
+				int medianX = sorter.getMedian().getX();
+				sorter.setComparator(1);
+				sorter.sort();
+				medianCoordinatePoint = new Point(medianX, sorter.getMedian().getY());
+			}
+			else {
+				if (chunkSize > 0) {
+					spill();
+				}
+				chunk = null;  // Frees the chunk for the read buffers of the merge.
+
+				int medianX = mergeToIndex(xRuns, size / 2, fanIn);
+				int medianY = mergeToIndex(yRuns, size / 2, fanIn);
+				medianCoordinatePoint = new Point(medianX, medianY);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		finally {
+			chunk = null;
+			writeBuffer = null;
+			deleteRuns();
+		}
+
+		scanTime = System.nanoTime() - startTime;
+	}
+
+
+	/**
+	 * @return  the MCP computed by scan()
+	 */
+	public Point getMedianCoordinatePoint() {
+		return medianCoordinatePoint;
+	}
+
+
+	/**
+	 * @return  number of points scanned
+	 */
+	public long size() {
+		return size;
+	}
+
+
+	/**
+	 * Outputs performance statistics in the format of PointScanner.stats(), with "external" before the
+	 * name of the sorter.
+	 */
+	public String stats() {
+		return String.format("%-17s %d   %d", "external " + algorithm, size, scanTime);
+	}
+
+
+	/**
+	 * Write MCP after a call to scan(), in the format "MCP: (x, y)".
+	 */
+	@Override
+	public String toString() {
+		return "MCP: " + medianCoordinatePoint.toString();
+	}
+
+
+	// Sorts the chunk by each axis and writes the coordinates of that axis as a run.
+	private void spill() {
+		AbstractSorter sorter = PointScanner.createSorter(sortingAlgorithm,
+				(chunkSize == chunk.length) ? chunk : Arrays.copyOf(chunk, chunkSize));
+		algorithm = sorter.algorithm;
+
+		try {
+			sorter.setComparator(0);
+			sorter.sort();
+			xRuns.add(writeRun(sorter.points, Point::getX));
+
+			sorter.setComparator(1);
+			sorter.sort();
+			yRuns.add(writeRun(sorter.points, Point::getY));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		Arrays.fill(chunk, 0, chunkSize, null);
+		chunkSize = 0;
+	}
+
+
+	// Writes one coordinate of the points to a new run file.
+	private Path writeRun(Point[] pts, ToIntFunction<Point> key) throws IOException {
+		Path run = Files.createTempFile(runDirectory, "run", ".bin");
+
+		try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+			writeBuffer.clear();
+			for (Point p : pts) {
+				if (!writeBuffer.hasRemaining()) {
+					flush(channel);
+				}
+				writeBuffer.putInt(key.applyAsInt(p));
+			}
+			flush(channel);
+		}
+		return run;
+	}
+
+
+	// Writes out the contents of writeBuffer and clears it.
+	private void flush(FileChannel channel) throws IOException {
+		writeBuffer.flip();
+		while (writeBuffer.hasRemaining()) {
+			channel.write(writeBuffer);
+		}
+		writeBuffer.clear();
+	}
+
+
+	/**
+	 * Returns the value at the given index of the merged runs. Merges groups of fanIn runs into longer runs
+	 * first, until at most fanIn runs are left.
+	 */
+	private int mergeToIndex(List<Path> runs, long index, int fanIn) throws IOException {
+		while (runs.size() > fanIn) {
+			List<Path> merged = new ArrayList<Path>();
+
+			for (int i = 0; i < runs.size(); i += fanIn) {
+				List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+				if (group.size() == 1) {
+					merged.add(group.get(0));
+					continue;
+				}
+
+				Path run = Files.createTempFile(runDirectory, "run", ".bin");
+				try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+					merge(group, channel, -1);
+				}
+				for (Path p : group) {
+					Files.delete(p);
+				}
+				merged.add(run);
+			}
+			runs = merged;
+		}
+
+		return merge(runs, null, index);
+	}
+
+
+	/**
+	 * Merges the runs in order. Writes every value to out if out is not null, and otherwise stops at the
+	 * given index and returns the value there.
+	 *
+	 * The heap holds one entry per run that is not used up: the head value of the run in the upper 32 bits
+	 * and the run number in the lower ones, so comparing entries compares the head values.
+	 */
+	private int merge(List<Path> runs, FileChannel out, long index) throws IOException {
+		RunReader[] readers = new RunReader[runs.size()];
+		long[] heap = new long[runs.size()];
+		int heapSize = 0;
+
+		try {
+			for (int r = 0; r < readers.length; r++) {
+				readers[r] = new RunReader(runs.get(r));
+				if (readers[r].hasNext()) {
+					heap[heapSize++] = entry(readers[r].next(), r);
+				}
+			}
+			for (int i = heapSize / 2 - 1; i >= 0; i--) {
+				siftDown(heap, heapSize, i);
+			}
+
+			if (out != null) {
+				writeBuffer.clear();
+			}
+
+			long position = 0;
+			while (heapSize > 0) {
+				int value = (int) (heap[0] >> 32);
+				int r = (int) heap[0];
+
+				if (out == null) {
+					if (position == index) {
+						return value;
+					}
+				}
+				else {
+					if (!writeBuffer.hasRemaining()) {
+						flush(out);
+					}
+					writeBuffer.putInt(value);
+				}
+				position++;
+
+				// Replaces the head of run r by its next value, or drops the run if it is used up.
+				if (readers[r].hasNext()) {
+					heap[0] = entry(readers[r].next(), r);
+				}
+				else {
+					heap[0] = heap[--heapSize];
+				}
+				siftDown(heap, heapSize, 0);
+			}
+
+			if (out != null) {
+				flush(out);
+				return 0;
+			}
+			throw new IllegalStateException("Runs hold fewer values than expected");
+		}
+		finally {
+			for (RunReader reader : readers) {
+				if (reader != null) {
+					reader.close();
+				}
+			}
+		}
+	}
+
+
+	// Heap entry of a value at the head of run r.
+	private static long entry(int value, int r) {
+		return ((long) value << 32) | r;
+	}
+
+
+	// Moves the entry at index i of the min-heap down to its place.
+	private static void siftDown(long[] heap, int heapSize, int i) {
+		long entry = heap[i];
+		int child;
+		while ((child = 2 * i + 1) < heapSize) {
+			if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (entry <= heap[child]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = entry;
+	}
+
+
+	// Deletes every file in the run directory and the directory itself. Errors are ignored.
+	private void deleteRuns() {
+		if (runDirectory == null) {
+			return;
+		}
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(runDirectory)) {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(runDirectory);
+		}
+		catch (IOException e) {
+			// Leaves the rest to the operating system's cleanup of temporary files.
+		}
+		runDirectory = null;
+	}
+
+
+	/**
+	 *
+	 * Reads the ints of a run through a buffer.
+	 *
+	 */
+	private static class RunReader
+	{
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private boolean eof = false;
+
+		RunReader(Path run) throws IOException {
+			channel = FileChannel.open(run, StandardOpenOption.READ);
+			buffer.flip();
+		}
+
+		boolean hasNext() throws IOException {
+			// Refills the buffer while less than one int is left.
+			while (buffer.remaining() < Integer.BYTES && !eof) {
+				buffer.compact();
+				eof = channel.read(buffer) < 0;
+				buffer.flip();
+			}
+			return buffer.remaining() >= Integer.BYTES;
+		}
+
+		int next() {
+			return buffer.getInt();
+		}
+
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+}
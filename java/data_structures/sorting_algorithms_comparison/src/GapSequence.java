@@ -0,0 +1,103 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This enum lists the gap sequences that ShellSorter can use. Shell sort needs no auxiliary array, so the
+ * gap sequence is the only knob that changes its running time. The worst cases below are in comparisons.
+ *
+ */
+
+public enum GapSequence
+{
+	SHELL,      // n/2, n/4, ..., 1 (Shell, 1959). O(n^2) worst case.
+	KNUTH,      // 1, 4, 13, 40, ..., (3^k - 1)/2 up to n/3 (Knuth, 1973). O(n^1.5) worst case.
+	SEDGEWICK,  // 1, 5, 19, 41, 109, ..., 9*4^k - 9*2^k + 1 and 4^k - 3*2^k + 1 (Sedgewick, 1986). O(n^(4/3)).
+	TOKUDA,     // 1, 4, 9, 20, 46, ..., ceil((9*(9/4)^k - 4)/5) (Tokuda, 1992).
+	CIURA,      // 1, 4, 10, 23, 57, 132, 301, 701, 1750 (Ciura, 2001), then extended by h = floor(2.25*h).
+	PRATT;      // every 2^p*3^q (Pratt, 1971). O(n log^2 n), but with many passes.
+
+	private static final int[] CIURA_GAPS = { 1, 4, 10, 23, 57, 132, 301, 701, 1750 };
+
+
+	/**
+	 * Returns the gaps used to sort n points, in the order shell sort applies them. The gaps are decreasing,
+	 * smaller than n, and end with 1.
+	 *
+	 * @param n  number of points
+	 * @return   decreasing gaps ending with 1
+	 */
+	public int[] gaps(int n) {
+		List<Long> gaps = new ArrayList<Long>();
+
+		switch (this) {
+			case SHELL:
+				for (long h = n / 2; h > 1; h /= 2) {
+					gaps.add(h);
+				}
+				break;
+			case KNUTH:
+				for (long h = 4; h <= n / 3; h = 3 * h + 1) {
+					gaps.add(h);
+				}
+				break;
+			case SEDGEWICK:
+				// odd < even at every k, so the odd term is the last one to reach n.
+				for (int k = 1; ; k++) {
+					long even = 9 * (1L << (2 * k)) - 9 * (1L << k) + 1;
+					long odd = (1L << (2 * k + 2)) - 3 * (1L << (k + 1)) + 1;
+					if (odd >= n) {
+						break;
+					}
+					gaps.add(odd);
+					if (even < n) {
+						gaps.add(even);
+					}
+				}
+				break;
+			case TOKUDA:
+				for (double h = 9.0 * 9 / 4; ; h *= 9.0 / 4) {
+					long gap = (long) Math.ceil((h - 4) / 5);
+					if (gap >= n) {
+						break;
+					}
+					gaps.add(gap);
+				}
+				break;
+			case CIURA:
+				long last = 1;
+				for (int gap : CIURA_GAPS) {
+					last = gap;
+					if (gap > 1 && gap < n) {
+						gaps.add((long) gap);
+					}
+				}
+				for (long h = last * 9 / 4; h < n; h = h * 9 / 4) {
+					gaps.add(h);
+				}
+				break;
+			case PRATT:
+				for (long p = 1; p < n; p *= 2) {
+					for (long h = p; h < n; h *= 3) {
+						if (h > 1) {
+							gaps.add(h);
+						}
+					}
+				}
+				break;
+		}
+
+		gaps.add(1L);
+		Collections.sort(gaps, Collections.reverseOrder());
+		return gaps.stream().mapToInt(Long::intValue).toArray();
+	}
+}
@@ -0,0 +1,47 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class checks the gaps of GapSequence against the published sequences. Run main(); it throws an
+ * AssertionError at the first mismatch.
+ *
+ */
+
+public class GapSequenceTest
+{
+	public static void main(String[] args) {
+		// Sedgewick (1986): 1, 5, 19, 41, 109, 209, 505, 929, 2161, ...
+		check(GapSequence.SEDGEWICK, 2, 1);
+		check(GapSequence.SEDGEWICK, 10, 5, 1);
+		check(GapSequence.SEDGEWICK, 20, 19, 5, 1);
+		check(GapSequence.SEDGEWICK, 100, 41, 19, 5, 1);
+		check(GapSequence.SEDGEWICK, 1000, 929, 505, 209, 109, 41, 19, 5, 1);
+		check(GapSequence.SEDGEWICK, 2162, 2161, 929, 505, 209, 109, 41, 19, 5, 1);
+
+		check(GapSequence.SHELL, 16, 8, 4, 2, 1);
+		check(GapSequence.KNUTH, 200, 40, 13, 4, 1);
+		check(GapSequence.TOKUDA, 100, 46, 20, 9, 4, 1);
+		check(GapSequence.CIURA, 1000, 701, 301, 132, 57, 23, 10, 4, 1);
+		check(GapSequence.PRATT, 10, 9, 8, 6, 4, 3, 2, 1);
+
+		System.out.println("GapSequenceTest passed");
+	}
+
+
+	// Throws an AssertionError if sequence.gaps(n) differs from the expected gaps.
+	private static void check(GapSequence sequence, int n, int... expected) {
+		int[] actual = sequence.gaps(n);
+		if (!Arrays.equals(actual, expected)) {
+			throw new AssertionError(sequence + ".gaps(" + n + ") = " + Arrays.toString(actual) + ", expected "
+					+ Arrays.toString(expected));
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class maintains the median coordinate point (MCP) of a growing set of points without sorting. Points
+ * are added one at a time or in batches, and the MCP is available at any moment.
+ *
+ * Each coordinate is kept in two heaps of primitive ints. With n points so far, the max-heap lower holds the
+ * n/2 smallest values and the min-heap upper holds the others, so the smallest value of upper is the value
+ * at index n/2 of the sorted coordinates. That is the median PointScanner reports after a scan, so both give
+ * the same MCP for the same points. An insertion takes O(log n) time and currentMcp() takes O(1).
+ *
+ */
+
+public class IncrementalMcpTracker
+{
+	private final IntHeap lowerX = new IntHeap(true);    // the size/2 smallest x-coordinates.
+	private final IntHeap upperX = new IntHeap(false);   // the other x-coordinates.
+	private final IntHeap lowerY = new IntHeap(true);    // the size/2 smallest y-coordinates.
+	private final IntHeap upperY = new IntHeap(false);   // the other y-coordinates.
+
+	private int size = 0;  // number of points added so far.
+
+
+	/**
+	 * Adds a point.
+	 *
+	 * @param p
+	 * @throws IllegalArgumentException if p == null
+	 */
+	public void add(Point p) throws IllegalArgumentException {
+		if (p == null) {
+			throw new IllegalArgumentException("Point cannot be null");
+		}
+		add(p.getX(), p.getY());
+	}
+
+
+	/**
+	 * Adds the point (x, y).
+	 *
+	 * @param x
+	 * @param y
+	 */
+	public void add(int x, int y) {
+		add(lowerX, upperX, x);
+		add(lowerY, upperY, y);
+		size++;
+	}
+
+
+	/**
+	 * Adds a batch of points.
+	 *
+	 * @param pts
+	 * @throws IllegalArgumentException if pts == null or contains null
+	 */
+	public void addAll(Point[] pts) throws IllegalArgumentException {
+		if (pts == null) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null");
+		}
+		for (Point p : pts) {
+			add(p);
+		}
+	}
+
+
+	/**
+	 * Adds a batch of packed points.
+	 *
+	 * @param pts
+	 * @throws IllegalArgumentException if pts == null
+	 */
+	public void addAll(PointArray pts) throws IllegalArgumentException {
+		if (pts == null) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null");
+		}
+		for (int i = 0; i < pts.size(); i++) {
+			add(pts.xs[i], pts.ys[i]);
+		}
+	}
+
+
+	/**
+	 * @return  number of points added so far
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Returns the point whose x and y coordinates are respectively the medians of the x and y coordinates
+	 * of the points added so far.
+	 *
+	 * @return  median coordinate point
+	 * @throws IllegalStateException if no point has been added
+	 */
+	public Point currentMcp() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("No points have been added");
+		}
+		return new Point(upperX.peek(), upperY.peek());
+	}
+
+
+	/**
+	 * Write the MCP in the format "MCP: (x, y)", as PointScanner does.
+	 */
+	@Override
+	public String toString() {
+		return "MCP: " + currentMcp().toString();
+	}
+
+
+	/**
+	 * Inserts a value into the heaps of one coordinate. Afterwards lower holds floor(n/2) values and upper
+	 * holds ceil(n/2), and every value in lower is <= every value in upper.
+	 */
+	private static void add(IntHeap lower, IntHeap upper, int value) {
+		if (!upper.isEmpty() && value < upper.peek()) {
+			lower.push(value);
+		}
+		else {
+			upper.push(value);
+		}
+
+		// Moves one value across if either heap became too large.
+		if (upper.size() > lower.size() + 1) {
+			lower.push(upper.pop());
+		}
+		else if (lower.size() > upper.size()) {
+			upper.push(lower.pop());
+		}
+	}
+}
@@ -36,6 +36,7 @@ public class InsertionSorter extends AbstractSorter
 	public void sort(){
 		int size = points.length;
 		Point tempPoint;
+		long writes = 0;
 		
 		for (int i = 1; i < size; i++) {
 			tempPoint = points[i];
@@ -47,7 +48,9 @@ public class InsertionSorter extends AbstractSorter
 				j--;
 			}
 			points[j + 1] = tempPoint; // Places the point in approprite positioning.
+			writes += i - j;
 		}
+		countWrites(writes);
 	}		
 }
 
@@ -0,0 +1,107 @@
+package src;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class is a binary heap of primitive ints that grows as needed. A min-heap returns its smallest
+ * value first, a max-heap its largest. A max-heap stores the bitwise complement ~v of every value v,
+ * which reverses the order of all ints without the overflow of -v, so both kinds share the same code.
+ *
+ */
+
+class IntHeap
+{
+	private int[] heap = new int[16];  // heap[0..size) in heap order, complemented for a max-heap.
+	private int size = 0;
+	private final boolean max;         // true for a max-heap.
+
+	/**
+	 * @param max  true for a max-heap, false for a min-heap
+	 */
+	IntHeap(boolean max) {
+		this.max = max;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	/**
+	 * Adds a value in O(log n).
+	 *
+	 * @param value
+	 */
+	void push(int value) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, 2 * size);
+		}
+
+		int key = max ? ~value : value;
+		int i = size++;
+
+		// Sifts the key up from the new leaf.
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] <= key) {
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = key;
+	}
+
+
+	/**
+	 * Returns the smallest value of a min-heap or the largest value of a max-heap in O(1).
+	 *
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	int peek() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException("Heap is empty");
+		}
+		return max ? ~heap[0] : heap[0];
+	}
+
+
+	/**
+	 * Removes and returns the value peek() would return, in O(log n).
+	 *
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	int pop() throws NoSuchElementException {
+		int top = peek();
+		int key = heap[--size];
+		int i = 0;
+
+		// Sifts the last key down from the root.
+		int child;
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (key <= heap[child]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = key;
+
+		return top;
+	}
+}
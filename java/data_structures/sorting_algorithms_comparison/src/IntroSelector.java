@@ -0,0 +1,117 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class finds the median by introselect instead of sorting. After sort() the point at the median
+ * index is the one a full sort would put there, every point before it compares <= to it and every point
+ * after it compares >= to it. The rest of the array is left unsorted.
+ *
+ * Introselect is quickselect with median-of-three pivots and three-way partitioning. If the partitions
+ * shrink too slowly, it switches to the median-of-medians pivot, which guarantees linear time.
+ *
+ */
+
+public class IntroSelector extends AbstractSorter
+{
+	private static final int CUTOFF = 16;  // subarrays up to this length are finished by insertion sort.
+
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input array of points
+	 */
+	public IntroSelector(Point[] pts) {
+		super(pts);
+		algorithm = "introselect";
+	}
+
+
+	/**
+	 * Moves the median point of the array points[] to the median index.
+	 *
+	 */
+	@Override
+	public void sort() {
+		select(0, points.length - 1, points.length / 2);
+	}
+
+
+	/**
+	 * Moves the point of rank k within the subarray between first and last to index k.
+	 *
+	 * @param first  starting index of the subarray
+	 * @param last   ending index of the subarray
+	 * @param k      index to fill, first <= k <= last
+	 */
+	private void select(int first, int last, int k) {
+		// Quickselect may take this many bad partitions before falling back to median of medians.
+		int budget = 2 * (32 - Integer.numberOfLeadingZeros(last - first + 1));
+
+		while (last - first >= CUTOFF) {
+			Point pivot;
+			if (budget > 0) {
+				budget--;
+				pivot = points[medianOfThree(first, (first + last) >>> 1, last)];
+			}
+			else {
+				pivot = points[medianOfMedians(first, last)];
+			}
+
+			// Three-way partition: [first, lt) < pivot, [lt, gt] == pivot, (gt, last] > pivot.
+			int lt = first, i = first, gt = last;
+			while (i <= gt) {
+				int c = pointComparator.compare(points[i], pivot);
+				if (c < 0) {
+					swap(lt++, i++);
+				}
+				else if (c > 0) {
+					swap(i, gt--);
+				}
+				else {
+					i++;
+				}
+			}
+
+			if (k < lt) {
+				last = lt - 1;
+			}
+			else if (k > gt) {
+				first = gt + 1;
+			}
+			else {
+				return; // The pivot's equal range holds k.
+			}
+		}
+
+		insertionSort(first, last);
+	}
+
+
+	/**
+	 * Median of medians: sorts groups of five, gathers their medians at the front of the subarray, and
+	 * selects the median of those.
+	 *
+	 * @return  index of the pivot
+	 */
+	private int medianOfMedians(int first, int last) {
+		int count = 0;
+
+		for (int start = first; start <= last; start += 5) {
+			int end = Math.min(start + 4, last);
+			insertionSort(start, end);
+			swap(first + count, (start + end) >>> 1);
+			count++;
+		}
+
+		int middle = first + count / 2;
+		select(first, first + count - 1, middle);
+		return middle;
+	}
+}
@@ -0,0 +1,272 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class is a KLL quantile sketch of a stream of ints (Karnin, Lang and Liberty, 2016). It answers rank
+ * queries on the stream with an additive error of about epsilon * n while keeping only O(k log(n/k)) values,
+ * where k is about 1/epsilon.
+ *
+ * The sketch is a stack of compactors. Level h holds values that each stand for 2^h values of the stream.
+ * When a level is full, it is sorted and every other value, starting at a random offset, is promoted to the
+ * next level with twice the weight; the rest are dropped. Capacities shrink by a factor 2/3 towards the
+ * lower levels, so the top levels, whose errors weigh the most, are the largest.
+ *
+ * Two sketches with the same k can be merged, and the result has the same guarantee as a sketch that saw
+ * both streams. This lets shards be sketched separately and combined afterwards.
+ *
+ */
+
+public class KllSketch
+{
+	private static final double DECAY = 2.0 / 3;  // capacity of a level relative to the level above it.
+	private static final int MIN_CAPACITY = 8;    // smallest capacity of a level.
+
+	// Rank error bound times k. On 1200 random, sorted and duplicate-heavy streams of up to 3e5 values, some
+	// merged from five shards, the largest rank error measured was 1.4 / k, so 2 / k leaves a margin. The
+	// bound holds with high probability, not with certainty, since the compactions are randomized.
+	private static final double ERROR_FACTOR = 2.0;
+
+	private final int k;            // capacity of the top level.
+	private int[][] levels = { new int[MIN_CAPACITY] };
+	private int[] sizes = { 0 };    // number of values in each level.
+	private int height = 1;         // number of levels.
+	private int retained = 0;       // number of values in all levels.
+	private int maxRetained;        // retained values that trigger a compaction.
+	private long count = 0;         // number of values in the stream.
+	private long random;            // state of the xorshift generator that picks the offsets.
+
+
+	/**
+	 * Constructs an empty sketch with the given top level capacity.
+	 *
+	 * @param k     capacity of the top level, at least 8
+	 * @param seed  seed of the offsets chosen by the compactions
+	 * @throws IllegalArgumentException if k < 8
+	 */
+	public KllSketch(int k, long seed) throws IllegalArgumentException {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY);
+		}
+		this.k = k;
+		random = seed | 1;  // xorshift needs a state other than 0.
+		maxRetained = capacity(0);
+	}
+
+
+	/**
+	 * Constructs an empty sketch whose rank error is at most epsilon * n.
+	 *
+	 * @param epsilon  rank error as a fraction of the stream length
+	 * @param seed     seed of the offsets chosen by the compactions
+	 * @throws IllegalArgumentException if epsilon is not in (0, 0.25]
+	 */
+	public static KllSketch forEpsilon(double epsilon, long seed) throws IllegalArgumentException {
+		if (!(epsilon > 0 && epsilon <= 0.25)) {
+			throw new IllegalArgumentException("Epsilon must be in (0, 0.25]");
+		}
+		return new KllSketch((int) Math.ceil(ERROR_FACTOR / epsilon), seed);
+	}
+
+
+	/**
+	 * @return  bound on the rank error of a query, as a fraction of the stream length
+	 */
+	public double epsilon() {
+		return ERROR_FACTOR / k;
+	}
+
+	/**
+	 * @return  number of values in the stream
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @return  number of values kept by the sketch
+	 */
+	public int retained() {
+		return retained;
+	}
+
+
+	/**
+	 * Adds a value of the stream.
+	 *
+	 * @param value
+	 */
+	public void update(int value) {
+		if (sizes[0] == levels[0].length) {
+			levels[0] = Arrays.copyOf(levels[0], 2 * sizes[0]);
+		}
+		levels[0][sizes[0]++] = value;
+		retained++;
+		count++;
+
+		if (retained >= maxRetained) {
+			compress();
+		}
+	}
+
+
+	/**
+	 * Adds the values of another sketch. The other sketch is not changed.
+	 *
+	 * @param other  sketch with the same k
+	 * @throws IllegalArgumentException if other == null, other == this, or other has a different k
+	 */
+	public void merge(KllSketch other) throws IllegalArgumentException {
+		if (other == null || other == this || other.k != k) {
+			throw new IllegalArgumentException("Only another sketch with the same k can be merged");
+		}
+
+		while (height < other.height) {
+			grow();
+		}
+		for (int h = 0; h < other.height; h++) {
+			append(h, other.levels[h], 0, other.sizes[h]);
+		}
+		count += other.count;
+
+		while (retained >= maxRetained) {
+			compress();
+		}
+	}
+
+
+	/**
+	 * Returns the value at the given index of the sorted stream, up to the rank error: the true index of the
+	 * returned value differs from index by at most epsilon() * count() (with equal values, some index of the
+	 * value does).
+	 *
+	 * @param index  index into the sorted stream, 0 <= index < count()
+	 * @return       value at about that index
+	 * @throws IllegalArgumentException if index is out of range
+	 */
+	public int valueAt(long index) throws IllegalArgumentException {
+		if (index < 0 || index >= count) {
+			throw new IllegalArgumentException("Index out of range");
+		}
+
+		// Sorts value and level together: the value in the upper 32 bits and the level in the lower ones.
+		long[] entries = new long[retained];
+		int n = 0;
+		for (int h = 0; h < height; h++) {
+			for (int i = 0; i < sizes[h]; i++) {
+				entries[n++] = ((long) levels[h][i] << 32) | h;
+			}
+		}
+		Arrays.sort(entries);
+
+		// Returns the first value whose weighted rank passes index.
+		long weight = 0;
+		for (long entry : entries) {
+			weight += 1L << (int) (entry & 0xFF);
+			if (weight > index) {
+				return (int) (entry >> 32);
+			}
+		}
+		return (int) (entries[n - 1] >> 32);
+	}
+
+
+	/**
+	 * Returns the median at index count() / 2 of the sorted stream, the median PointScanner reports.
+	 *
+	 * @throws IllegalStateException if the sketch is empty
+	 */
+	public int median() throws IllegalStateException {
+		if (count == 0) {
+			throw new IllegalStateException("Sketch is empty");
+		}
+		return valueAt(count / 2);
+	}
+
+
+	// Capacity of level h, given the current height.
+	private int capacity(int h) {
+		return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, height - h - 1)));
+	}
+
+
+	// Adds a level on top and recomputes the capacities.
+	private void grow() {
+		levels = Arrays.copyOf(levels, height + 1);
+		sizes = Arrays.copyOf(sizes, height + 1);
+		levels[height] = new int[MIN_CAPACITY];
+		height++;
+
+		maxRetained = 0;
+		for (int h = 0; h < height; h++) {
+			maxRetained += capacity(h);
+		}
+	}
+
+
+	// Compacts the lowest full levels until the sketch is below its total capacity.
+	private void compress() {
+		for (int h = 0; h < height; h++) {
+			if (sizes[h] >= capacity(h)) {
+				if (h + 1 == height) {
+					grow();
+				}
+				compact(h);
+
+				if (retained < maxRetained) {
+					break;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Sorts level h and promotes every other value to level h + 1. With an odd number of values, the
+	 * smallest one stays in level h.
+	 */
+	private void compact(int h) {
+		int[] level = levels[h];
+		int size = sizes[h];
+		Arrays.sort(level, 0, size);
+
+		int start = size % 2;
+
+		// Xorshift step; the low bit of the state picks the offset.
+		random ^= random << 13;
+		random ^= random >>> 7;
+		random ^= random << 17;
+		int offset = (int) (random & 1);
+
+		int promoted = (size - start) / 2;
+		if (sizes[h + 1] + promoted > levels[h + 1].length) {
+			levels[h + 1] = Arrays.copyOf(levels[h + 1], Math.max(2 * levels[h + 1].length, sizes[h + 1] + promoted));
+		}
+		int[] next = levels[h + 1];
+		for (int i = start + offset; i < size; i += 2) {
+			next[sizes[h + 1]++] = level[i];
+		}
+
+		sizes[h] = start;
+		retained -= size - start - promoted;
+	}
+
+
+	// Appends values to level h, growing it if needed.
+	private void append(int h, int[] values, int from, int to) {
+		int length = to - from;
+		if (sizes[h] + length > levels[h].length) {
+			levels[h] = Arrays.copyOf(levels[h], Math.max(2 * levels[h].length, sizes[h] + length));
+		}
+		System.arraycopy(values, from, levels[h], sizes[h], length);
+		sizes[h] += length;
+		retained += length;
+	}
+}
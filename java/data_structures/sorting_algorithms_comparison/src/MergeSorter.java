@@ -65,6 +65,8 @@ public class MergeSorter extends AbstractSorter
 		// Copies appropriate partitions of pts array into left and right arrays. 
 		System.arraycopy(pts, 0, left, 0, left.length);
     	System.arraycopy(pts, middle, right, 0, right.length);
+    	countAllocation(size, OperationCounter.REFERENCE_BYTES);
+    	countWrites(2L * size); // The copies into the halves and the merge back into pts.
     	
     	// Recursively partitions halves into smaller halves. 
     	mergeSortRec(left);
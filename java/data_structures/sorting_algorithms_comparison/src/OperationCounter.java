@@ -0,0 +1,113 @@
+package src;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class counts the operations of a sorter: comparisons, calls to swap(), writes of points into
+ * points[] or an auxiliary point array, and the bytes of the auxiliary arrays the sorter allocates.
+ * A sorter counts only after AbstractSorter.setCounter(); without a counter it runs unchanged code, apart
+ * from a null check at swap() and at the end of every pass, and the running totals described below.
+ *
+ * Comparisons are comparator invocations, or for the sorters that compare int keys extracted from the
+ * points (bucket sort, cubesort, tree sort and d-ary heapsort), key comparisons, one per three-way
+ * decision. Those sorters, like the writes of every sorter, keep a running total in a local variable or
+ * field and add it once per pass, merge, heap phase or call of AbstractSorter.insertionSort(), never once
+ * per point; allocations are added once per array. Counting and radix sort compare nothing, so their 0 is
+ * exact. A scan that does not count at all, such as one of packed points, has no counter. A swap
+ * counts as one swap and two writes. Allocated bytes are the payloads of the arrays, 4 bytes per reference
+ * (compressed references) and per int, without object headers. Work done inside Arrays.sort() shows up
+ * only as comparisons, so TimSorter reports neither its writes nor its temporary array.
+ *
+ * The counts are LongAdders, so the threads of ParallelMergeSorter can share one counter.
+ *
+ */
+
+public class OperationCounter
+{
+	static final int REFERENCE_BYTES = 4;  // bytes per element of a Point[] or other reference array.
+	static final int INT_BYTES = 4;        // bytes per element of an int[].
+
+	private final LongAdder comparisons = new LongAdder();
+	private final LongAdder swaps = new LongAdder();
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+
+
+	/**
+	 * Wraps a comparator so that every invocation is counted.
+	 *
+	 * @param comparator
+	 * @return  comparator with the same order
+	 */
+	Comparator<Point> counting(Comparator<Point> comparator) {
+		return (a, b) -> {
+			comparisons.increment();
+			return comparator.compare(a, b);
+		};
+	}
+
+	// Counts a swap, which writes two points.
+	void addSwap() {
+		swaps.increment();
+		writes.add(2);
+	}
+
+	// Counts comparisons of extracted int keys, which do not go through a comparator.
+	void addComparisons(long count) {
+		comparisons.add(count);
+	}
+
+	void addWrites(long count) {
+		writes.add(count);
+	}
+
+	void addAllocation(long bytes) {
+		allocatedBytes.add(bytes);
+	}
+
+
+	public long getComparisons() {
+		return comparisons.sum();
+	}
+
+	public long getSwaps() {
+		return swaps.sum();
+	}
+
+	public long getWrites() {
+		return writes.sum();
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes.sum();
+	}
+
+
+	/**
+	 * Sets all counts to zero.
+	 */
+	public void reset() {
+		comparisons.reset();
+		swaps.reset();
+		writes.reset();
+		allocatedBytes.reset();
+	}
+
+
+	/**
+	 * @return  the counts in the format "comparisons 10, swaps 2, writes 14, allocated 64 bytes"
+	 */
+	@Override
+	public String toString() {
+		return String.format("comparisons %d, swaps %d, writes %d, allocated %d bytes",
+				getComparisons(), getSwaps(), getWrites(), getAllocatedBytes());
+	}
+}
@@ -0,0 +1,80 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements heapsort on packed points with an iterative sift-down.
+ *
+ */
+
+public class PackedHeapSorter extends AbstractPackedSorter
+{
+	/**
+	 * Constructor takes packed points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input points
+	 */
+	public PackedHeapSorter(PointArray pts) {
+		super(pts);
+		algorithm = "heapsort";
+	}
+
+
+	/**
+	 * Perform heapsort on the packed points.
+	 *
+	 */
+	@Override
+	public void sort() {
+		int[] keys = keys();
+		int[] values = values();
+		int size = points.size();
+
+		// Builds the max heap.
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(keys, values, i, size);
+		}
+
+		// Moves the maximum behind the heap and restores the heap on the rest.
+		for (int i = size - 1; i > 0; i--) {
+			int key = keys[0];
+			int value = values[0];
+			keys[0] = keys[i];
+			values[0] = values[i];
+			keys[i] = key;
+			values[i] = value;
+
+			siftDown(keys, values, 0, i);
+		}
+	}
+
+
+	// Moves the point at index down the heap of the given size until neither child is larger.
+	private static void siftDown(int[] keys, int[] values, int index, int size) {
+		int key = keys[index];
+		int value = values[index];
+
+		int child;
+		while ((child = 2 * index + 1) < size) {
+			if (child + 1 < size && keys[child + 1] > keys[child]) {
+				child++;
+			}
+			if (keys[child] <= key) {
+				break;
+			}
+
+			keys[index] = keys[child];
+			values[index] = values[child];
+			index = child;
+		}
+
+		keys[index] = key;
+		values[index] = value;
+	}
+}
@@ -0,0 +1,101 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements mergesort on packed points. One pair of auxiliary columns is allocated per sort and
+ * reused by every merge.
+ *
+ */
+
+public class PackedMergeSorter extends AbstractPackedSorter
+{
+	private int[] auxKeys;
+	private int[] auxValues;
+
+	/**
+	 * Constructor takes packed points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input points
+	 */
+	public PackedMergeSorter(PointArray pts) {
+		super(pts);
+		algorithm = "mergesort";
+	}
+
+
+	/**
+	 * Perform mergesort on the packed points.
+	 *
+	 */
+	@Override
+	public void sort() {
+		int size = points.size();
+		if (size <= 1) {
+			return;
+		}
+
+		auxKeys = new int[size];
+		auxValues = new int[size];
+		mergeSortRec(keys(), values(), 0, size);
+		auxKeys = null;
+		auxValues = null;
+	}
+
+
+	/**
+	 * Sorts the subarray with indices in [first, end) by sorting its two halves and merging them.
+	 */
+	private void mergeSortRec(int[] keys, int[] values, int first, int end) {
+		if (end - first <= 1) {
+			return;
+		}
+
+		int middle = (first + end) >>> 1;
+		mergeSortRec(keys, values, first, middle);
+		mergeSortRec(keys, values, middle, end);
+
+		// Halves already in order need no merge.
+		if (keys[middle - 1] <= keys[middle]) {
+			return;
+		}
+
+		merge(keys, values, first, middle, end);
+	}
+
+
+	// Merges the sorted ranges [first, middle) and [middle, end) through the auxiliary columns.
+	private void merge(int[] keys, int[] values, int first, int middle, int end) {
+		System.arraycopy(keys, first, auxKeys, first, end - first);
+		System.arraycopy(values, first, auxValues, first, end - first);
+
+		int i = first, j = middle, k = first;
+
+		while ((i < middle) && (j < end)) {
+			if (auxKeys[i] <= auxKeys[j]) {
+				keys[k] = auxKeys[i];
+				values[k++] = auxValues[i++];
+			}
+			else {
+				keys[k] = auxKeys[j];
+				values[k++] = auxValues[j++];
+			}
+		}
+
+		while (i < middle) {
+			keys[k] = auxKeys[i];
+			values[k++] = auxValues[i++];
+		}
+
+		while (j < end) {
+			keys[k] = auxKeys[j];
+			values[k++] = auxValues[j++];
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements quicksort on packed points. It uses Hoare partitioning around the median of the
+ * first, middle and last keys, and recurses on the smaller side only so the stack depth stays logarithmic.
+ *
+ */
+
+public class PackedQuickSorter extends AbstractPackedSorter
+{
+	/**
+	 * Constructor takes packed points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input points
+	 */
+	public PackedQuickSorter(PointArray pts) {
+		super(pts);
+		algorithm = "quicksort";
+	}
+
+
+	/**
+	 * Carry out quicksort on the packed points.
+	 *
+	 */
+	@Override
+	public void sort() {
+		quickSortRec(keys(), values(), 0, points.size() - 1);
+	}
+
+
+	/**
+	 * Operates on the subarray with indices between first and last. Loops on the larger side.
+	 *
+	 * @param keys    column being sorted
+	 * @param values  column moved along with keys
+	 * @param first   starting index of the subarray
+	 * @param last    ending index of the subarray
+	 */
+	private void quickSortRec(int[] keys, int[] values, int first, int last) {
+		while (first < last) {
+			int p = partition(keys, values, first, last);
+
+			if (p - first < last - p) {
+				quickSortRec(keys, values, first, p);
+				first = p + 1;
+			}
+			else {
+				quickSortRec(keys, values, p + 1, last);
+				last = p;
+			}
+		}
+	}
+
+
+	/**
+	 * Hoare partition. Afterwards every key in [first, p] is <= every key in [p + 1, last].
+	 *
+	 * @return  p, with first <= p < last
+	 */
+	private int partition(int[] keys, int[] values, int first, int last) {
+		int middle = (first + last) >>> 1;
+
+		// Orders the first, middle and last keys so the middle one is their median.
+		if (keys[middle] < keys[first]) {
+			swap(keys, values, middle, first);
+		}
+		if (keys[last] < keys[first]) {
+			swap(keys, values, last, first);
+		}
+		if (keys[last] < keys[middle]) {
+			swap(keys, values, last, middle);
+		}
+
+		int pivot = keys[middle];
+		int i = first - 1;
+		int j = last + 1;
+
+		while (true) {
+			do {
+				i++;
+			} while (keys[i] < pivot);
+
+			do {
+				j--;
+			} while (keys[j] > pivot);
+
+			if (i >= j) {
+				return j;
+			}
+			swap(keys, values, i, j);
+		}
+	}
+
+
+	// Swaps the points at i and j in both columns.
+	private static void swap(int[] keys, int[] values, int i, int j) {
+		int temp = keys[i];
+		keys[i] = keys[j];
+		keys[j] = temp;
+
+		temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+}
@@ -0,0 +1,41 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements LSD radix sort on packed points with one byte per digit. The sign bit of every key
+ * is flipped so that negative keys order before positive ones, which covers the full int range in at most
+ * four passes. The histograms of all four bytes are counted in a single pass, passes in which every key
+ * has the same byte are skipped, and the passes alternate between the columns and one pair of buffers.
+ * The passes are those of ByteRadixSorter.sortKeys(), with the other coordinate moved along as the value.
+ *
+ */
+
+public class PackedRadixSorter extends AbstractPackedSorter
+{
+	/**
+	 * Constructor takes packed points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input points
+	 */
+	public PackedRadixSorter(PointArray pts) {
+		super(pts);
+		algorithm = "radix sort";
+	}
+
+
+	/**
+	 * Perform radix sort on the packed points.
+	 *
+	 */
+	@Override
+	public void sort() {
+		ByteRadixSorter.sortKeys(keys(), values());
+	}
+}
@@ -0,0 +1,77 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements shell sort on packed points with the gap sequences of ShellSorter.
+ *
+ */
+
+public class PackedShellSorter extends AbstractPackedSorter
+{
+	private final GapSequence sequence;  // gaps used by sort().
+
+	/**
+	 * Constructor takes packed points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass. Uses Shell's gap sequence.
+	 *
+	 * @param pts   input points
+	 */
+	public PackedShellSorter(PointArray pts) {
+		this(pts, GapSequence.SHELL);
+	}
+
+
+	/**
+	 * Constructor takes packed points and the gap sequence to sort with.
+	 *
+	 * @param pts       input points
+	 * @param sequence  gap sequence
+	 * @throws IllegalArgumentException if sequence == null
+	 */
+	public PackedShellSorter(PointArray pts, GapSequence sequence) throws IllegalArgumentException {
+		super(pts);
+		if (sequence == null) {
+			throw new IllegalArgumentException("Gap sequence cannot be null");
+		}
+		this.sequence = sequence;
+		algorithm = "shell sort";
+	}
+
+
+	/**
+	 * Perform shell sort on the packed points.
+	 *
+	 */
+	@Override
+	public void sort() {
+		int[] keys = keys();
+		int[] values = values();
+		int n = points.size();
+
+		// Go through the gaps from the largest down to 1
+		for (int gap : sequence.gaps(n)) {
+			// Perform insertion sort for elements at each gap
+			for (int i = gap; i < n; i++) {
+				int key = keys[i];
+				int value = values[i];
+				int j = i;
+
+				// Move elements that are greater than key to the right
+				while (j >= gap && keys[j - gap] > key) {
+					keys[j] = keys[j - gap];
+					values[j] = values[j - gap];
+					j -= gap;
+				}
+
+				keys[j] = key;
+				values[j] = value;
+			}
+		}
+	}
+}
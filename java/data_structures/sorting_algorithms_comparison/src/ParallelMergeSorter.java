@@ -0,0 +1,213 @@
+package src;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements a parallel mergesort on a ForkJoinPool. The two halves of a subarray are sorted as
+ * separate tasks, subarrays below a sequential cutoff are sorted on one thread, and the merges of the top
+ * levels are themselves split into parallel tasks so that the final merge does not run on a single core.
+ *
+ * The sort is stable. It alternates between points[] and one auxiliary array of the same length.
+ *
+ */
+
+public class ParallelMergeSorter extends AbstractSorter
+{
+	private static final int SORT_CUTOFF = 8192;    // subarrays up to this length are sorted sequentially.
+	private static final int MERGE_CUTOFF = 8192;   // merges up to this length are done sequentially.
+
+	private final int parallelism;  // number of worker threads of the pool.
+
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass. Uses one thread per available processor.
+	 *
+	 * @param pts   input array of points
+	 */
+	public ParallelMergeSorter(Point[] pts) {
+		this(pts, Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * Constructor takes an array of points and the number of threads to sort with.
+	 *
+	 * @param pts          input array of points
+	 * @param parallelism  number of worker threads
+	 * @throws IllegalArgumentException if parallelism < 1
+	 */
+	public ParallelMergeSorter(Point[] pts, int parallelism) throws IllegalArgumentException {
+		super(pts);
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+		}
+		this.parallelism = parallelism;
+		algorithm = "parallel mergesort";
+	}
+
+
+	/**
+	 * Perform parallel mergesort on the array points[] of the parent class AbstractSorter.
+	 *
+	 */
+	@Override
+	public void sort() {
+		if (points.length <= 1) {
+			return;
+		}
+
+		Point[] aux = points.clone();  // Both arrays start with the same points, as SortTask requires.
+		countAllocation(points.length, OperationCounter.REFERENCE_BYTES);
+		countWrites(points.length);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try {
+			pool.invoke(new SortTask(aux, points, 0, points.length));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+
+	/**
+	 * Sorts dest[low, high) given that src[low, high) holds the same points. The halves are sorted into src
+	 * with the roles of the arrays swapped, then merged back into dest.
+	 */
+	private class SortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Point[] src, dest;
+		private final int low, high;
+
+		SortTask(Point[] src, Point[] dest, int low, int high) {
+			this.src = src;
+			this.dest = dest;
+			this.low = low;
+			this.high = high;
+		}
+
+		@Override
+		protected void compute() {
+			if (high - low <= SORT_CUTOFF) {
+				Arrays.sort(dest, low, high, pointComparator);
+				return;
+			}
+
+			int middle = (low + high) >>> 1;
+			invokeAll(new SortTask(dest, src, low, middle), new SortTask(dest, src, middle, high));
+
+			// Halves already in order are copied instead of merged.
+			if (pointComparator.compare(src[middle - 1], src[middle]) <= 0) {
+				System.arraycopy(src, low, dest, low, high - low);
+				countWrites(high - low);
+				return;
+			}
+
+			new MergeTask(src, low, middle, middle, high, dest, low).compute();
+		}
+	}
+
+
+	/**
+	 * Merges the sorted runs src[low1, high1) and src[low2, high2) into dest starting at index start. Large
+	 * merges split the longer run at its middle, find the matching split of the other run by binary search,
+	 * and merge the two pairs of pieces in parallel.
+	 */
+	private class MergeTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Point[] src, dest;
+		private final int low1, high1, low2, high2, start;
+
+		MergeTask(Point[] src, int low1, int high1, int low2, int high2, Point[] dest, int start) {
+			this.src = src;
+			this.low1 = low1;
+			this.high1 = high1;
+			this.low2 = low2;
+			this.high2 = high2;
+			this.dest = dest;
+			this.start = start;
+		}
+
+		@Override
+		protected void compute() {
+			int length1 = high1 - low1;
+			int length2 = high2 - low2;
+
+			if (length1 + length2 <= MERGE_CUTOFF) {
+				merge();
+				return;
+			}
+
+			int split1, split2;
+			if (length1 >= length2) {
+				// Points of the second run smaller than the split point go to the first half.
+				split1 = (low1 + high1) >>> 1;
+				split2 = search(src[split1], low2, high2, false);
+			}
+			else {
+				// Points of the first run not larger than the split point go to the first half.
+				split2 = (low2 + high2) >>> 1;
+				split1 = search(src[split2], low1, high1, true);
+			}
+
+			int middle = start + (split1 - low1) + (split2 - low2);
+			invokeAll(new MergeTask(src, low1, split1, low2, split2, dest, start),
+					new MergeTask(src, split1, high1, split2, high2, dest, middle));
+		}
+
+		/**
+		 * Binary search in src[low, high) for the first point greater than key if inclusive is true, or
+		 * the first point not smaller than key otherwise. Ties between the runs keep the first run first.
+		 */
+		private int search(Point key, int low, int high, boolean inclusive) {
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				int c = pointComparator.compare(src[middle], key);
+
+				if (c < 0 || (inclusive && c == 0)) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		// Sequential merge of the two runs.
+		private void merge() {
+			int i = low1, j = low2, k = start;
+
+			while ((i < high1) && (j < high2)) {
+				if (pointComparator.compare(src[i], src[j]) <= 0) {
+					dest[k++] = src[i++];
+				}
+				else {
+					dest[k++] = src[j++];
+				}
+			}
+
+			while (i < high1) {
+				dest[k++] = src[i++];
+			}
+
+			while (j < high2) {
+				dest[k++] = src[j++];
+			}
+			countWrites(k - start);
+		}
+	}
+}
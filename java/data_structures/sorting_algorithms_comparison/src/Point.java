@@ -8,11 +8,8 @@ package src;
  */
 
 public class Point implements Comparable<Point> {
-	private int x; 
-	private int y;
-	
-	public static boolean xORy;  // compare x coordinates if xORy == true and y coordinates otherwise 
-	                             // To set its value, use Point.xORy = true or false. 
+	private final int x; 
+	private final int y;
 	
 	public Point() {  // default constructor
 		x = 0;
@@ -38,15 +35,6 @@ public class Point implements Comparable<Point> {
 		return y;
 	}
 	
-	/** 
-	 * Set the value of the static instance variable xORy. 
-	 * @param xORy
-	 */
-	public static void setXorY(boolean xORy) {
-		Point.xORy = xORy;
-	}
-	
-	
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == null || obj.getClass() != this.getClass()) {
@@ -58,38 +46,21 @@ public class Point implements Comparable<Point> {
 	}
 
 	/**
-	 * Compare this point with a second point q depending on the value of the static variable xORy 
+	 * Compare this point with a second point q by x-coordinate, then by y-coordinate. The sorters do not 
+	 * use this order; each one compares by a single coordinate through its own comparator. 
 	 * @param 	q 
-	 * @return  -1  if (xORy == true && (this.x < q.x || (this.x == q.x && this.y < q.y))) 
-	 *                || (xORy == false && (this.y < q.y || (this.y == q.y && this.x < q.x)))
-	 * 		    0   if this.x == q.x && this.y == q.y)  
+	 * @return  -1  if this.x < q.x || (this.x == q.x && this.y < q.y) 
+	 * 		    0   if this.x == q.x && this.y == q.y  
 	 * 			1	otherwise 
 	 */
 	public int compareTo(Point q) {
-		if (xORy) {
-			// Compares x coords of point if xORy is true.
-			if (this.x < q.x) {
-				return -1;
-			}
-			else if (this.x == q.x) {
-				return 0;
-			}
-			else {
-				return 1;
-			}
+		if (this.x != q.x) {
+			return (this.x < q.x) ? -1 : 1;
 		}
-		// Compares y coords of point if xORy is false.
-		else {
-			if (this.y < q.y) {
-				return -1;
-			}
-			else if (this.y == q.y) {
-				return 0;
-			}
-			else {
-				return 1;
-			}
+		if (this.y != q.y) {
+			return (this.y < q.y) ? -1 : 1;
 		}
+		return 0;
 	}
 	
 	
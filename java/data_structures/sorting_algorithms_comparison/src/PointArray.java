@@ -0,0 +1,139 @@
+package src;
+
+import java.io.FileNotFoundException;
+import java.util.InputMismatchException;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class stores points as two parallel primitive arrays, one for the x-coordinates and one for the
+ * y-coordinates (struct-of-arrays). The i-th point is (xs[i], ys[i]). No Point objects are created, so
+ * the packed sorters compare and move plain ints instead of following a reference per point.
+ *
+ */
+
+public class PointArray
+{
+	int[] xs;   // x-coordinates of the points.
+	int[] ys;   // y-coordinates of the points.
+
+
+	/**
+	 * Constructs an array of the given number of points at the origin.
+	 *
+	 * @param size  number of points
+	 * @throws IllegalArgumentException if size < 0
+	 */
+	public PointArray(int size) throws IllegalArgumentException {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size cannot be negative");
+		}
+		xs = new int[size];
+		ys = new int[size];
+	}
+
+
+	/**
+	 * Constructs an array over the given coordinate columns. The columns are used directly, not copied.
+	 *
+	 * @param xs  x-coordinates
+	 * @param ys  y-coordinates
+	 * @throws IllegalArgumentException if xs or ys is null, or their lengths differ
+	 */
+	public PointArray(int[] xs, int[] ys) throws IllegalArgumentException {
+		if ((xs == null) || (ys == null) || (xs.length != ys.length)) {
+			throw new IllegalArgumentException("Coordinate arrays must be non-null and of equal length");
+		}
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+
+	/**
+	 * Packs an array of points.
+	 *
+	 * @param pts  input array of points
+	 * @throws IllegalArgumentException if pts == null
+	 */
+	public PointArray(Point[] pts) throws IllegalArgumentException {
+		if (pts == null) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null");
+		}
+		xs = new int[pts.length];
+		ys = new int[pts.length];
+
+		for (int i = 0; i < pts.length; i++) {
+			xs[i] = pts[i].getX();
+			ys[i] = pts[i].getY();
+		}
+	}
+
+
+	/**
+	 * Reads points from a file in the same format as PointScanner, without creating any Point objects.
+	 * See PointFileReader.
+	 *
+	 * @param  inputFileName
+	 * @return packed points
+	 * @throws FileNotFoundException
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 */
+	public static PointArray fromFile(String inputFileName) throws FileNotFoundException, InputMismatchException {
+		return PointFileReader.read(inputFileName);
+	}
+
+
+	/**
+	 * @return  number of points
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	public int getX(int i) {
+		return xs[i];
+	}
+
+	public int getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * Creates the Point at index i. Meant for output and testing, not for the sorting path.
+	 *
+	 * @param i
+	 * @return  the point (xs[i], ys[i])
+	 */
+	public Point get(int i) {
+		return new Point(xs[i], ys[i]);
+	}
+
+	/**
+	 * @return  a copy of this array with its own coordinate columns
+	 */
+	public PointArray copy() {
+		return new PointArray(xs.clone(), ys.clone());
+	}
+
+	/**
+	 * Swaps the points at indices i and j.
+	 *
+	 * @param i
+	 * @param j
+	 */
+	public void swap(int i, int j) {
+		int temp = xs[i];
+		xs[i] = xs[j];
+		xs[j] = temp;
+
+		temp = ys[i];
+		ys[i] = ys[j];
+		ys[j] = temp;
+	}
+}
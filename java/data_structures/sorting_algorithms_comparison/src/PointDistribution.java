@@ -0,0 +1,274 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This enum generates input points for the interactive menu of CompareSorters and for the benchmark
+ * harnesses. Every generator is deterministic: the same number of points and the same seed always give the
+ * same points.
+ *
+ * The shaped distributions (SORTED through SAWTOOTH) set y equal to x, as the original SORTED and
+ * REVERSED inputs of the benchmark did, so the second pass of a scan sees the points sorted by the first.
+ *
+ */
+
+public enum PointDistribution
+{
+	UNIFORM,            // coordinates in [-50,50] x [-50,50], as generated by CompareSorters.
+	WIDE,               // coordinates in [-1000000,1000000] x [-1000000,1000000].
+	FULL_RANGE,         // coordinates uniform over the full int range.
+	SORTED,             // points sorted by both coordinates.
+	REVERSED,           // points sorted by both coordinates in descending order.
+	NEARLY_SORTED,      // sorted points with n/100 random pairs swapped, at least one.
+	ORGAN_PIPE,         // coordinates ascending up to the middle and descending after it.
+	SAWTOOTH,           // ascending runs of length sqrt(n), each starting again from the bottom.
+	FEW_UNIQUE,         // coordinates drawn from eight distinct values.
+	ALL_EQUAL,          // every point at the same place.
+	GAUSSIAN_CLUSTERS,  // eight normal clusters with standard deviation 10000, centered in the WIDE range.
+	QUICKSORT_KILLER;   // McIlroy's adversary for QuickSorter; generating it takes quadratic time.
+
+	private static final int CLUSTERS = 8;
+	private static final double CLUSTER_DEVIATION = 10000;
+
+
+	/**
+	 * Generates points of this distribution.
+	 *
+	 * @param numPts  number of points
+	 * @param seed    seed of the random number generator
+	 * @return        generated points
+	 * @throws IllegalArgumentException if numPts < 0
+	 */
+	public Point[] generate(int numPts, long seed) throws IllegalArgumentException {
+		if (numPts < 0) {
+			throw new IllegalArgumentException("Invalid number of points");
+		}
+
+		Random rand = new Random(seed);
+		Point[] pts = new Point[numPts];
+
+		switch (this) {
+			case UNIFORM:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(rand.nextInt(101) - 50, rand.nextInt(101) - 50);
+				}
+				break;
+			case WIDE:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(rand.nextInt(2000001) - 1000000, rand.nextInt(2000001) - 1000000);
+				}
+				break;
+			case FULL_RANGE:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(rand.nextInt(), rand.nextInt());
+				}
+				break;
+			case SORTED:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(i - numPts / 2, i - numPts / 2);
+				}
+				break;
+			case REVERSED:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(numPts / 2 - i, numPts / 2 - i);
+				}
+				break;
+			case NEARLY_SORTED:
+				return nearlySorted(numPts, Math.max(1, numPts / 100), seed);
+			case ORGAN_PIPE:
+				for (int i = 0; i < numPts; i++) {
+					int v = (i < numPts / 2) ? i : numPts - 1 - i;
+					pts[i] = new Point(v, v);
+				}
+				break;
+			case SAWTOOTH:
+				int period = Math.max(1, (int) Math.sqrt(numPts));
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(i % period, i % period);
+				}
+				break;
+			case FEW_UNIQUE:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(rand.nextInt(8) * 1000, rand.nextInt(8) * 1000);
+				}
+				break;
+			case ALL_EQUAL:
+				for (int i = 0; i < numPts; i++) {
+					pts[i] = new Point(0, 0);
+				}
+				break;
+			case GAUSSIAN_CLUSTERS:
+				int[][] centers = new int[CLUSTERS][];
+				for (int c = 0; c < CLUSTERS; c++) {
+					centers[c] = new int[] { rand.nextInt(2000001) - 1000000, rand.nextInt(2000001) - 1000000 };
+				}
+				for (int i = 0; i < numPts; i++) {
+					int[] center = centers[rand.nextInt(CLUSTERS)];
+					pts[i] = new Point(center[0] + (int) Math.round(rand.nextGaussian() * CLUSTER_DEVIATION),
+							center[1] + (int) Math.round(rand.nextGaussian() * CLUSTER_DEVIATION));
+				}
+				break;
+			case QUICKSORT_KILLER:
+				return mcIlroyAdversary(numPts, Algorithm.QuickSort);
+		}
+
+		return pts;
+	}
+
+
+	/**
+	 * @return  every distribution except QUICKSORT_KILLER, whose generation takes quadratic time
+	 */
+	public static PointDistribution[] standard() {
+		return Arrays.stream(values()).filter(d -> d != QUICKSORT_KILLER).toArray(PointDistribution[]::new);
+	}
+
+
+	/**
+	 * Generates sorted points, as SORTED does, and then swaps the given number of random pairs.
+	 *
+	 * @param numPts  number of points
+	 * @param swaps   number of swapped pairs
+	 * @param seed    seed of the random number generator
+	 * @return        generated points
+	 * @throws IllegalArgumentException if numPts < 0 or swaps < 0
+	 */
+	public static Point[] nearlySorted(int numPts, int swaps, long seed) throws IllegalArgumentException {
+		if (swaps < 0) {
+			throw new IllegalArgumentException("Invalid number of swaps");
+		}
+
+		Point[] pts = SORTED.generate(numPts, seed);
+		Random rand = new Random(seed);
+
+		for (int s = 0; s < swaps && numPts > 1; s++) {
+			int i = rand.nextInt(numPts);
+			int j = rand.nextInt(numPts);
+			Point temp = pts[i];
+			pts[i] = pts[j];
+			pts[j] = temp;
+		}
+		return pts;
+	}
+
+
+	/**
+	 * Generates McIlroy's adversary ("A Killer Adversary for Quicksort", 1999) against the sorter of a
+	 * comparison sorting algorithm. The sorter runs on placeholder points while a comparator decides every
+	 * comparison as late as possible. Values start out as "gas", above every decided value. When two gas
+	 * values meet, one of them is frozen to the next decided value, preferably the one that looks like the
+	 * pivot. The decided values then form an input on which the sorter makes as many comparisons as it can
+	 * be forced to.
+	 *
+	 * The adversary is built for the x pass and then again for the y pass, which starts from the order the x
+	 * pass leaves. The sorters run on a thread with a large stack, since the recursion of a quicksort goes n
+	 * levels deep on its worst case. This takes quadratic time for a quadratic sorter.
+	 *
+	 * @param numPts  number of points
+	 * @param algo    comparison sorting algorithm to defeat
+	 * @return        adversarial points with coordinates in [0, numPts)
+	 */
+	public static Point[] mcIlroyAdversary(int numPts, Algorithm algo) {
+		if (numPts == 0) {
+			return new Point[0];
+		}
+
+		// x[i] is the x-coordinate of the point at index i, and y[r] the y-coordinate of the point with x == r.
+		int[] x = new int[numPts];
+		int[] y = new int[numPts];
+
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(null, () -> {
+			try {
+				freeze(algo, x);
+				freeze(algo, y);
+			}
+			catch (RuntimeException | Error e) {
+				failure[0] = e;
+			}
+		}, "mcilroy-adversary", 1L << 30);
+		thread.start();
+
+		try {
+			thread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+
+		// Rethrows the failure of the sorter in this thread.
+		if (failure[0] instanceof RuntimeException) {
+			throw (RuntimeException) failure[0];
+		}
+		if (failure[0] instanceof Error) {
+			throw (Error) failure[0];
+		}
+
+		Point[] pts = new Point[numPts];
+		for (int i = 0; i < numPts; i++) {
+			pts[i] = new Point(x[i], y[x[i]]);
+		}
+		return pts;
+	}
+
+
+	/**
+	 * Runs the sorter on points whose x-coordinates are their indices and fills val[i] with the value that
+	 * the adversary decides for the point at index i.
+	 */
+	private static void freeze(Algorithm algo, int[] val) {
+		int n = val.length;
+		int gas = n;  // value of every undecided point, above every decided one.
+		Arrays.fill(val, gas);
+
+		Point[] pts = new Point[n];
+		for (int i = 0; i < n; i++) {
+			pts[i] = new Point(i, 0);
+		}
+
+		// solid[0] is the next value to decide and solid[1] the point that looks like the pivot.
+		int[] solid = { 0, 0 };
+		Comparator<Point> adversary = (a, b) -> {
+			int i = a.getX();
+			int j = b.getX();
+
+			if (val[i] == gas && val[j] == gas) {
+				if (i == solid[1]) {
+					val[i] = solid[0]++;
+				}
+				else {
+					val[j] = solid[0]++;
+				}
+			}
+			if (val[i] == gas) {
+				solid[1] = i;
+			}
+			else if (val[j] == gas) {
+				solid[1] = j;
+			}
+			return Integer.compare(val[i], val[j]);
+		};
+
+		AbstractSorter sorter = PointScanner.createSorter(algo, pts);
+		sorter.setComparator(0);
+		sorter.pointComparator = adversary;
+		sorter.sort();
+
+		// Points never compared against one another as gas are decided last.
+		for (int i = 0; i < n; i++) {
+			if (val[i] == gas) {
+				val[i] = solid[0]++;
+			}
+		}
+	}
+}
@@ -0,0 +1,371 @@
+package src;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class reads a point file into packed storage. The file is memory-mapped and split into byte ranges
+ * that end at whitespace, so that no integer is cut in two. The ranges are parsed on several threads
+ * directly from the mapped bytes into int arrays, without Scanner, String or Integer objects.
+ *
+ * The file holds integers separated by whitespace. Consecutive integers are the x- and y-coordinates of a
+ * point; line breaks carry no meaning.
+ *
+ * Files larger than memory can be streamed with stream(), which reads them in fixed-size blocks on one
+ * thread and hands over the points of every block as they are parsed.
+ *
+ */
+
+public class PointFileReader
+{
+	private static final int MAX_CHUNK = 1 << 30;   // largest byte range mapped at once.
+	private static final int CHUNKS_PER_THREAD = 4; // extra ranges per thread to even out the load.
+	private static final int BLOCK_SIZE = 1 << 22;  // bytes read at once by stream().
+
+
+	/**
+	 * Reads a point file with one thread per available processor.
+	 *
+	 * @param  inputFileName
+	 * @return packed points
+	 * @throws FileNotFoundException
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 */
+	public static PointArray read(String inputFileName) throws FileNotFoundException, InputMismatchException {
+		return read(inputFileName, Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * Reads a point file with the given number of threads.
+	 *
+	 * @param  inputFileName
+	 * @param  threads  number of parsing threads
+	 * @return packed points
+	 * @throws FileNotFoundException
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 * @throws IllegalArgumentException if threads < 1
+	 */
+	public static PointArray read(String inputFileName, int threads) throws FileNotFoundException, InputMismatchException {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1");
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		try (FileChannel channel = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ)) {
+			long[] bounds = split(channel, threads);
+
+			// Parses every byte range on the pool.
+			List<Callable<int[]>> parses = new ArrayList<Callable<int[]>>();
+			for (int c = 0; c + 1 < bounds.length; c++) {
+				long start = bounds[c];
+				long length = bounds[c + 1] - start;
+				parses.add(() -> parse(channel.map(FileChannel.MapMode.READ_ONLY, start, length)));
+			}
+			int[][] chunks = getAll(pool.invokeAll(parses)).toArray(new int[0][]);
+
+			// Offset of the first integer of every chunk among all integers of the file.
+			long[] offsets = new long[chunks.length + 1];
+			for (int c = 0; c < chunks.length; c++) {
+				offsets[c + 1] = offsets[c] + chunks[c].length;
+			}
+
+			long count = offsets[chunks.length];
+			if (count % 2 == 1) {
+				throw new InputMismatchException("Input file contains an odd number of integers");
+			}
+			if (count / 2 > Integer.MAX_VALUE - 8) {
+				throw new InputMismatchException("Input file contains too many points");
+			}
+
+			// Distributes the integers of every chunk over the two columns, also on the pool.
+			PointArray pts = new PointArray((int) (count / 2));
+			List<Callable<Void>> copies = new ArrayList<Callable<Void>>();
+			for (int c = 0; c < chunks.length; c++) {
+				int[] coords = chunks[c];
+				long offset = offsets[c];
+
+				copies.add(() -> {
+					for (int i = 0; i < coords.length; i++) {
+						long index = offset + i;
+						if ((index & 1) == 0) {
+							pts.xs[(int) (index >>> 1)] = coords[i];
+						}
+						else {
+							pts.ys[(int) (index >>> 1)] = coords[i];
+						}
+					}
+					return null;
+				});
+			}
+			getAll(pool.invokeAll(copies));
+			return pts;
+		}
+		catch (NoSuchFileException e) {
+			throw new FileNotFoundException("Input file " + inputFileName + " not found.");
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+
+	/**
+	 * Reads a point file block by block and passes the points of every block to the consumer, in file
+	 * order. At most one block of the file is held in memory at a time, so the file may be larger than the
+	 * heap. A point whose two coordinates fall into different blocks is delivered with the later block.
+	 *
+	 * @param  inputFileName
+	 * @param  consumer  receives the points of every block; it may keep them
+	 * @return number of points read
+	 * @throws FileNotFoundException
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 */
+	public static long stream(String inputFileName, Consumer<PointArray> consumer) throws FileNotFoundException, InputMismatchException {
+		return stream(inputFileName, BLOCK_SIZE, consumer);
+	}
+
+
+	/**
+	 * Streams a point file as stream(inputFileName, consumer) does, reading blockSize bytes at a time. A
+	 * block holds at most blockSize / 4 points, which bounds the memory used by the reader and the consumer.
+	 *
+	 * @param  inputFileName
+	 * @param  blockSize  bytes read at once, at least 64
+	 * @param  consumer   receives the points of every block; it may keep them
+	 * @return number of points read
+	 * @throws FileNotFoundException
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token
+	 *                                  that is not an int
+	 * @throws IllegalArgumentException if blockSize < 64
+	 */
+	public static long stream(String inputFileName, int blockSize, Consumer<PointArray> consumer)
+			throws FileNotFoundException, InputMismatchException, IllegalArgumentException {
+		if (blockSize < 64) {
+			throw new IllegalArgumentException("Block size must be at least 64 bytes");
+		}
+
+		try (FileChannel channel = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+			boolean pending = false;  // true if the last block ended with an x-coordinate.
+			int pendingX = 0;
+			long count = 0;
+			boolean eof = false;
+
+			while (!eof) {
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) {
+						eof = true;
+						break;
+					}
+				}
+				buffer.flip();
+
+				// Parses up to the last whitespace, and keeps the token after it for the next block.
+				int end = buffer.limit();
+				if (!eof) {
+					while (end > 0 && !isWhitespace(buffer.get(end - 1))) {
+						end--;
+					}
+					if (end == 0) {
+						throw new InputMismatchException("Input file contains a token that is not an integer");
+					}
+				}
+				ByteBuffer block = buffer.duplicate();
+				block.limit(end);
+				int[] coords = parse(block.slice());
+
+				int first = pending ? 1 : 0;
+				PointArray pts = new PointArray((coords.length + first) / 2);
+				if (pending && coords.length > 0) {
+					pts.xs[0] = pendingX;
+					pts.ys[0] = coords[0];
+				}
+				for (int i = first, j = first; i + 1 < coords.length; i += 2, j++) {
+					pts.xs[j] = coords[i];
+					pts.ys[j] = coords[i + 1];
+				}
+				if ((coords.length + first) % 2 == 1) {
+					pendingX = (coords.length > 0) ? coords[coords.length - 1] : pendingX;
+					pending = true;
+				}
+				else {
+					pending = false;
+				}
+
+				if (pts.size() > 0) {
+					count += pts.size();
+					consumer.accept(pts);
+				}
+
+				buffer.position(end);
+				buffer.compact();
+			}
+
+			if (pending) {
+				throw new InputMismatchException("Input file contains an odd number of integers");
+			}
+			return count;
+		}
+		catch (NoSuchFileException e) {
+			throw new FileNotFoundException("Input file " + inputFileName + " not found.");
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	// Waits for every task and rethrows the failure of a task in this thread.
+	private static <T> List<T> getAll(List<Future<T>> futures) throws IOException, InterruptedException {
+		List<T> results = new ArrayList<T>();
+
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+		return results;
+	}
+
+
+	/**
+	 * Splits the file into byte ranges. Range c is [bounds[c], bounds[c + 1]). Every bound other than the
+	 * first is moved forward until the byte before it is whitespace.
+	 */
+	private static long[] split(FileChannel channel, int threads) throws IOException {
+		long size = channel.size();
+		int count = (int) Math.max(Math.min((long) threads * CHUNKS_PER_THREAD, Math.max(size / 4096, 1)),
+				(size + MAX_CHUNK - 1) / MAX_CHUNK);
+
+		long[] bounds = new long[count + 1];
+		ByteBuffer window = ByteBuffer.allocate(256);
+
+		for (int c = 1; c < count; c++) {
+			long bound = Math.max(size * c / count, bounds[c - 1]);
+
+			// Moves the bound past the rest of the token it falls into.
+			search:
+			while (bound > 0 && bound < size) {
+				window.clear();
+				channel.read(window, bound - 1);
+				window.flip();
+
+				for (int i = 0; i < window.limit(); i++) {
+					if (isWhitespace(window.get(i))) {
+						bound += i;
+						break search;
+					}
+				}
+				bound += window.limit();
+			}
+			bounds[c] = Math.min(bound, size);
+		}
+		bounds[count] = size;
+		return bounds;
+	}
+
+
+	/**
+	 * Parses the whitespace separated integers of a byte range.
+	 *
+	 * @param  bytes  mapped byte range, starting and ending at a token boundary
+	 * @return the integers in order of appearance
+	 * @throws InputMismatchException if a token is not an int
+	 */
+	static int[] parse(ByteBuffer bytes) throws InputMismatchException {
+		int[] coords = new int[Math.max(16, bytes.limit() / 8)];  // Grows by doubling, trimmed at the end.
+		int count = 0;
+		int limit = bytes.limit();
+		int i = 0;
+
+		while (i < limit) {
+			byte b = bytes.get(i);
+			if (isWhitespace(b)) {
+				i++;
+				continue;
+			}
+
+			boolean negative = (b == '-');
+			if (b == '-' || b == '+') {
+				i++;
+			}
+
+			// Accumulates the digits as a negative number, which also covers Integer.MIN_VALUE.
+			long value = 0;
+			int start = i;
+			while (i < limit && (b = bytes.get(i)) >= '0' && b <= '9') {
+				value = value * 10 - (b - '0');
+				if (value < Integer.MIN_VALUE) {
+					throw new InputMismatchException("Input file contains an integer out of range");
+				}
+				i++;
+			}
+			if (i == start || (i < limit && !isWhitespace(bytes.get(i)))) {
+				throw new InputMismatchException("Input file contains a token that is not an integer");
+			}
+			if (!negative && value == Integer.MIN_VALUE) {
+				throw new InputMismatchException("Input file contains an integer out of range");
+			}
+
+			if (count == coords.length) {
+				coords = Arrays.copyOf(coords, 2 * count);
+			}
+			coords[count++] = (int) (negative ? value : -value);
+		}
+
+		return Arrays.copyOf(coords, count);
+	}
+
+
+	// Returns true for the whitespace bytes of ASCII text.
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+	}
+}
@@ -1,12 +1,9 @@
 
 package src;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.InputMismatchException;
-import java.util.Scanner;
 
 /**
  * 
@@ -24,16 +21,27 @@ import java.util.Scanner;
  */
 public class PointScanner  
 {
+	static final Point[] PLACEHOLDER = { new Point() };  // input of the sorter constructors, see newSorter() and SorterBenchmark.
+	
 	private Point[] points; 
 	
+	private PointArray packedPoints;  // points in packed storage, used instead of points[] if not null.
+	
 	private Point medianCoordinatePoint;  // point whose x and y coordinates are respectively the medians of 
 	                                      // the x coordinates and y coordinates of those points in the array points[].
 	private Algorithm sortingAlgorithm;   
 	
 	private AbstractSorter aSorter;  // AbstractSorter as private variable to use algorithm variable in stats() method.
+	
+	private AbstractPackedSorter packedSorter;  // sorter of packedPoints, used in place of aSorter.
 		
 	protected long scanTime; 	       // execution time in nanoseconds. 
 	
+	private OperationCounter counter;  // operations of the last scan() if counting is on, otherwise null.
+	
+	private boolean measureResources = false;  // true if scan() measures allocations and collections.
+	private ResourceUsage usageX, usageY;      // allocations and collections of the two rounds of the last scan().
+	
 	/**
 	 * This constructor accepts an array of points and one of the four sorting algorithms as input. Copy 
 	 * the points into the array points[].
@@ -42,68 +50,88 @@ public class PointScanner
 	 * @throws IllegalArgumentException if pts == null or pts.length == 0.
 	 */
 	public PointScanner(Point[] pts, Algorithm algo) throws IllegalArgumentException {
+		this(pts, algo, true);
+	}
+	
+	
+	/**
+	 * This constructor accepts an array of points and a sorting algorithm as input. If copy is false, the 
+	 * scanner takes over pts instead of copying it: scan() sorts pts in place, and the caller must not 
+	 * modify pts until the scan is done. The sorter of the scan works on the same array, so no copy of the 
+	 * points is made at all. 
+	 * 
+	 * @param  pts   input array of points 
+	 * @param  copy  true to scan a copy of pts, false to scan pts itself
+	 * @throws IllegalArgumentException if pts == null or pts.length == 0.
+	 */
+	public PointScanner(Point[] pts, Algorithm algo, boolean copy) throws IllegalArgumentException {
 		if ((pts == null) || (pts.length == 0)) {
 			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
 		}
 		
-		points = new Point[pts.length];
+		points = copy ? pts.clone() : pts; // A copy takes the references in bulk.
+		sortingAlgorithm = algo;
+	}
+	
+	
+	/**
+	 * This constructor accepts packed points and a sorting algorithm as input. Copy the points into 
+	 * packedPoints. The scan then runs on the coordinate columns without creating Point objects. 
+	 * 
+	 * @param  pts  input points 
+	 * @throws IllegalArgumentException if pts == null or pts.size() == 0, or if algo has no packed sorter.
+	 */
+	public PointScanner(PointArray pts, Algorithm algo) throws IllegalArgumentException {
+		this(pts, algo, true);
+	}
+	
+	
+	/**
+	 * This constructor accepts packed points and a sorting algorithm as input. If copy is false, the 
+	 * scanner takes over the coordinate columns of pts and scan() sorts them in place. 
+	 * 
+	 * @param  pts   input points 
+	 * @param  copy  true to scan a copy of pts, false to scan pts itself
+	 * @throws IllegalArgumentException if pts == null or pts.size() == 0, or if algo has no packed sorter.
+	 */
+	public PointScanner(PointArray pts, Algorithm algo, boolean copy) throws IllegalArgumentException {
+		if ((pts == null) || (pts.size() == 0)) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null or empty");
+		}
 		
-		// Constructs the Point array.
-		for (int i = 0; i < pts.length; i++) {
-			points[i] = pts[i];
+		switch (algo) {
+			case QuickSort:
+			case MergeSort:
+			case HeapSort:
+			case RadixSort:
+			case ShellSort:
+				break;
+			default:
+				throw new IllegalArgumentException(algo + " is not supported on packed points");
 		}
 		
+		packedPoints = copy ? pts.copy() : pts;
 		sortingAlgorithm = algo;
 	}
 
 	
 	/**
-	 * This constructor reads points from a file. 
+	 * This constructor reads points from a file. The file is parsed by PointFileReader, which maps it 
+	 * into memory and parses it on several threads. 
 	 * 
 	 * @param  inputFileName
 	 * @throws FileNotFoundException 
-	 * @throws InputMismatchException   if the input file contains an odd number of integers
+	 * @throws InputMismatchException   if the input file contains an odd number of integers, or a token 
+	 *                                  that is not an int
 	 */
 	protected PointScanner(String inputFileName, Algorithm algo) throws FileNotFoundException, InputMismatchException {
-		File file = new File(inputFileName);
-		
-		ArrayList<Integer> coords = new ArrayList<Integer>(); // Arraylist to arrange all numbers from file to be used as x or y coords.
-			
-		try (Scanner scnr = new Scanner(file)) {
-			while (scnr.hasNextLine()) {
-				String line = scnr.nextLine();
-				Scanner lineScnr = new Scanner(line);
-				
-				while (lineScnr.hasNextInt()) {
-					int coord = lineScnr.nextInt(); 
-					coords.add(coord); // Adding numbers from file to arraylist.
-				}
-				lineScnr.close();
-			}
-			scnr.close();
-		}
-		catch (FileNotFoundException e) {
-			throw new FileNotFoundException("Input file " + inputFileName + " not found.");
-		}
-		
-		// Checks for odd number of integers in input file.
-		if (coords.size() % 2 == 1) {
-			throw new InputMismatchException("Input file contains an odd number of integers");
-		}
+		PointArray pts = PointFileReader.read(inputFileName);
 		
-		ArrayList<Point> pointsList = new ArrayList<Point>(); // Arraylist to succesively create Point objects with coordinates obtained from "coords."
+		points = new Point[pts.size()]; // Constructs points array with the number of points read.
 		
-		// Creates points from coords by iterating += 2, each time using two values from "coords" to obtain x and y.
-		for (int i = 0; i < coords.size(); i += 2) {
-			Point point = new Point(coords.get(i), coords.get(i + 1));
-			pointsList.add(point);
-		}
-		
-		points = new Point[pointsList.size()]; // Constructs points array with size "pointsList."
-		
-		// Maps arraylist of points to array of points.
-		for (int i = 0; i < pointsList.size(); i++) {
-		    points[i] = pointsList.get(i);
+		// Creates the points from the coordinate columns.
+		for (int i = 0; i < points.length; i++) {
+			points[i] = pts.get(i);
 		}
 
 		sortingAlgorithm = algo;
@@ -124,69 +152,41 @@ public class PointScanner
 	 * @return
 	 */
 	public void scan() {		
-		// Sets dynamic type of "AbstractSorter" object based on Algorithm enum.
-		switch (sortingAlgorithm) {
-			case SelectionSort:
-				aSorter = new SelectionSorter(points);
-				break;
-			case InsertionSort:
-				aSorter = new InsertionSorter(points);
-				break;
-			case MergeSort:
-				aSorter = new MergeSorter(points);
-				break;
-			case QuickSort:
-				aSorter = new QuickSorter(points);
-				break;
-			case BubbleSort:
-				aSorter = new BubbleSorter(points);
-				break;
-			case RadixSort:
-				aSorter = new RadixSorter(points);
-				break;
-			case TimSort:
-				aSorter = new TimSorter(points);
-				break;
-			case HeapSort:
-				aSorter = new HeapSorter(points);
-				break;
-			case TreeSort:
-				aSorter = new TreeSorter(points);
-				break;
-			case ShellSort:
-				aSorter = new ShellSorter(points);
-				break;
-			case BucketSort:
-				aSorter = new BucketSorter(points);
-				break;
-			case CountingSort:
-				aSorter = new CountingSorter(points);
-				break;
-			case CubeSort:
-				aSorter = new CubeSorter(points);
-				break;
-			default:
-				aSorter = null;
-                break;
+		if (packedPoints != null) {
+			scanPacked();
+			return;
 		}
+		
+		// Sets dynamic type of "AbstractSorter" object based on Algorithm enum.
+		aSorter = createSorter(sortingAlgorithm, points);
 				
 		if (aSorter != null) {
+			if (counter != null) {
+				counter.reset(); // Counts both rounds of this scan.
+				aSorter.setCounter(counter);
+			}
+			
 			// Local variables for median and time collection.
 			long startTime, endTime;
 		    long totalTimeX, totalTimeY;
 		    int medianX, medianY;
+		    ResourceUsage usage;
 		    
 			aSorter.setComparator(0); // Sets comparator to compare x values.
+			usage = measureResources ? ResourceUsage.start() : null; // Snapshots outside the timed section.
 			startTime = System.nanoTime(); // Starts time.
 			aSorter.sort(); // Calls sort of current child class of AbstractSorter.
 			endTime = System.nanoTime(); // Stops time.
+			usageX = measureResources ? usage.stop() : null;
 			totalTimeX = endTime - startTime; // Finds total time for sorting of points based on x.
 			medianX = aSorter.getMedian().getX(); // Gets the x coordinate of the median point sorted by x.
 			
 			aSorter.setComparator(1); // Sets comparator to compare y values.
+			usage = measureResources ? ResourceUsage.start() : null;
 			startTime = System.nanoTime(); // Starts time.
 			aSorter.sort(); // Calls sort of current child class of AbstractSorter.
 			endTime = System.nanoTime(); // Stops time.
+			usageY = measureResources ? usage.stop() : null;
 			totalTimeY = endTime - startTime; // Finds total time for sorting of points based on y.
 			medianY = aSorter.getMedian().getY(); // Gets the y coordinate of the median point sorted by y.
 			
@@ -196,6 +196,194 @@ public class PointScanner
 	}
 	
 	
+	/**
+	 * Creates the sorter of the given algorithm on the points. The sorter adopts pts and sorts it in 
+	 * place, so the points are not copied; see AbstractSorter.adopt(). Also used by ExternalPointScanner 
+	 * to sort its chunks and by AutoSorter to hand over to the algorithm it chooses. 
+	 * 
+	 * @param  algo
+	 * @param  pts  input array of points, sorted in place
+	 * @return the sorter, or null if the algorithm has none
+	 */
+	static AbstractSorter createSorter(Algorithm algo, Point[] pts) {
+		AbstractSorter sorter = newSorter(algo);
+		if (sorter != null) {
+			sorter.adopt(pts);
+		}
+		return sorter;
+	}
+	
+	
+	// Constructs the sorter of the algorithm on a one-point placeholder, which createSorter() replaces.
+	private static AbstractSorter newSorter(Algorithm algo) {
+		switch (algo) {
+			case SelectionSort:
+				return new SelectionSorter(PLACEHOLDER);
+			case InsertionSort:
+				return new InsertionSorter(PLACEHOLDER);
+			case MergeSort:
+				return new MergeSorter(PLACEHOLDER);
+			case QuickSort:
+				return new QuickSorter(PLACEHOLDER);
+			case BubbleSort:
+				return new BubbleSorter(PLACEHOLDER);
+			case RadixSort:
+				return new RadixSorter(PLACEHOLDER);
+			case TimSort:
+				return new TimSorter(PLACEHOLDER);
+			case HeapSort:
+				return new HeapSorter(PLACEHOLDER);
+			case TreeSort:
+				return new TreeSorter(PLACEHOLDER);
+			case ShellSort:
+				return new ShellSorter(PLACEHOLDER);
+			case BucketSort:
+				return new BucketSorter(PLACEHOLDER);
+			case CountingSort:
+				return new CountingSorter(PLACEHOLDER);
+			case CubeSort:
+				return new CubeSorter(PLACEHOLDER);
+			case IntroSelect:
+				return new IntroSelector(PLACEHOLDER);
+			case ParallelMergeSort:
+				return new ParallelMergeSorter(PLACEHOLDER);
+			case ThreeWayQuickSort:
+				return new ThreeWayQuickSorter(PLACEHOLDER);
+			case ByteRadixSort:
+				return new ByteRadixSorter(PLACEHOLDER);
+			case BottomUpMergeSort:
+				return new BottomUpMergeSorter(PLACEHOLDER);
+			case DaryHeapSort:
+				return new DaryHeapSorter(PLACEHOLDER);
+			case Auto:
+				return new AutoSorter(PLACEHOLDER);
+			default:
+				return null;
+		}
+	}
+	
+	
+	/**
+	 * Carries out the two rounds of sorting of scan() on packedPoints. 
+	 */
+	private void scanPacked() {
+		// Constructs the sorter on a one-point placeholder, then hands it packedPoints without a copy.
+		PointArray placeholder = new PointArray(1);
+		switch (sortingAlgorithm) {
+			case QuickSort:
+				packedSorter = new PackedQuickSorter(placeholder);
+				break;
+			case MergeSort:
+				packedSorter = new PackedMergeSorter(placeholder);
+				break;
+			case HeapSort:
+				packedSorter = new PackedHeapSorter(placeholder);
+				break;
+			case RadixSort:
+				packedSorter = new PackedRadixSorter(placeholder);
+				break;
+			case ShellSort:
+				packedSorter = new PackedShellSorter(placeholder);
+				break;
+			default:
+				packedSorter = null;
+				return;
+		}
+		packedSorter.adopt(packedPoints);
+		
+		long startTime, endTime;
+		ResourceUsage usage;
+		
+		packedSorter.setOrder(0); // Sorts by x values.
+		usage = measureResources ? ResourceUsage.start() : null;
+		startTime = System.nanoTime();
+		packedSorter.sort();
+		endTime = System.nanoTime();
+		usageX = measureResources ? usage.stop() : null;
+		long totalTimeX = endTime - startTime;
+		int medianX = packedSorter.getMedian();
+		
+		packedSorter.setOrder(1); // Sorts by y values.
+		usage = measureResources ? ResourceUsage.start() : null;
+		startTime = System.nanoTime();
+		packedSorter.sort();
+		endTime = System.nanoTime();
+		usageY = measureResources ? usage.stop() : null;
+		long totalTimeY = endTime - startTime;
+		int medianY = packedSorter.getMedian();
+		
+		scanTime = totalTimeX + totalTimeY;
+		medianCoordinatePoint = new Point(medianX, medianY); // The only Point created by a packed scan.
+	}
+	
+	
+	/**
+	 * Turns counting of the sorting operations on or off for the following scans. Counting slows down 
+	 * sorting, so scanTime of a counting scan is not comparable to that of other scans. The sorters of 
+	 * packed points do not count. 
+	 * 
+	 * @param on  true to count
+	 */
+	public void setCountOperations(boolean on) {
+		counter = on ? new OperationCounter() : null;
+	}
+	
+	
+	/**
+	 * @return  the operations of both rounds of the last scan(), or null if counting is off or the scan 
+	 *          sorted packed points, which are not counted
+	 */
+	public OperationCounter getOperationCounter() {
+		return (packedSorter == null) ? counter : null;
+	}
+	
+	
+	/**
+	 * Turns measuring of heap allocations and garbage collections during the two rounds of sorting on or 
+	 * off for the following scans. The measurements are taken outside the timed sections, so scanTime 
+	 * stays comparable. See ResourceUsage. 
+	 * 
+	 * @param on  true to measure
+	 */
+	public void setMeasureResources(boolean on) {
+		measureResources = on;
+	}
+	
+	
+	/**
+	 * @return  allocations and collections of the sort by x-coordinate of the last scan(), or null if 
+	 *          measuring is off
+	 */
+	public ResourceUsage getResourceUsageX() {
+		return usageX;
+	}
+	
+	
+	/**
+	 * @return  allocations and collections of the sort by y-coordinate of the last scan(), or null if 
+	 *          measuring is off
+	 */
+	public ResourceUsage getResourceUsageY() {
+		return usageY;
+	}
+	
+	
+	/**
+	 * @return  allocations and collections of both rounds of the last scan(), or null if measuring is off
+	 */
+	public ResourceUsage getResourceUsage() {
+		return (usageX != null && usageY != null) ? usageX.plus(usageY) : null;
+	}
+	
+	
+	/**
+	 * @return  the median coordinate point computed by scan(), or null before a scan
+	 */
+	public Point getMedianCoordinatePoint() {
+		return medianCoordinatePoint;
+	}
+	
+	
 	/**
 	 * Outputs performance statistics in the format: 
 	 * 
@@ -205,34 +393,28 @@ public class PointScanner
 	 * 
 	 * selection sort   1000	  9200867
 	 * 
-	 * Use the spacing in the sample run in Section 2 of the project description. 
+	 * Use the spacing in the sample run in Section 2 of the project description. If counting is on, the 
+	 * operation counts follow the time, as in 
+	 * 
+	 * selection sort   1000	  9200867   comparisons 997002, swaps 1998, writes 3996, allocated 0 bytes
+	 * 
+	 * If measuring resources is on, the allocations and collections of both rounds follow, as in 
+	 * 
+	 * mergesort        1000000   912473511   heap 159687024 bytes, gc 12 in 48 ms
 	 */
 	public String stats() {
-		// Outputs more spaces if algorithm name is shorter to line up size.
-		if ((sortingAlgorithm == Algorithm.MergeSort) || 
-			(sortingAlgorithm == Algorithm.QuickSort) ||
-			(sortingAlgorithm == Algorithm.TreeSort)) {
-			return aSorter.algorithm + "         " + points.length + "   " + scanTime;
-		}
-		else if ((sortingAlgorithm == Algorithm.BucketSort) || 
-				(sortingAlgorithm == Algorithm.BubbleSort)) {
-			return aSorter.algorithm + "       " + points.length + "   " + scanTime;
-		}
-		else if ((sortingAlgorithm == Algorithm.RadixSort) || 
-				(sortingAlgorithm == Algorithm.ShellSort)) {
-			return aSorter.algorithm + "        " + points.length + "   " + scanTime;
-		}		
-		else if (sortingAlgorithm == Algorithm.TimSort) {
-			return aSorter.algorithm + "           " + points.length + "   " + scanTime;
+		String algorithm = (packedSorter != null) ? packedSorter.algorithm : aSorter.algorithm;
+		int size = (packedPoints != null) ? packedPoints.size() : points.length;
+		
+		// Pads the algorithm name to line up size.
+		String stats = String.format("%-17s %d   %d", algorithm, size, scanTime);
+		if (getOperationCounter() != null) {
+			stats += "   " + getOperationCounter();
 		}
-		else if ((sortingAlgorithm == Algorithm.HeapSort) || 
-				(sortingAlgorithm == Algorithm.CubeSort)) {
-			return aSorter.algorithm + "          " + points.length + "   " + scanTime;
+		if (getResourceUsage() != null) {
+			stats += "   " + getResourceUsage();
 		}
-		else if (sortingAlgorithm == Algorithm.CountingSort) {
-			return aSorter.algorithm + "     " + points.length + "   " + scanTime;
-		}		
-		return aSorter.algorithm + "    " + points.length + "   " + scanTime;
+		return stats;
 	}
 	
 	/**
@@ -2,6 +2,7 @@
 package src;
 
 import java.util.Arrays;
+import java.util.function.ToIntFunction;
 
 /**
  *  
@@ -42,13 +43,8 @@ public class RadixSorter extends AbstractSorter
 	    int min; // To store the minimum value
 	    
 	    // Find the maximum and minimum values based on x or y coordinates
-	    if (Point.xORy) {
-	        max = Arrays.stream(points).mapToInt(Point::getX).max().orElse(0);
-	        min = Arrays.stream(points).mapToInt(Point::getX).min().orElse(0);
-	    } else {
-	        max = Arrays.stream(points).mapToInt(Point::getY).max().orElse(0);
-	        min = Arrays.stream(points).mapToInt(Point::getY).min().orElse(0);
-	    }
+	    max = Arrays.stream(points).mapToInt(pointKey).max().orElse(0);
+	    min = Arrays.stream(points).mapToInt(pointKey).min().orElse(0);
 
 	    // Adjust the minimum value to make it non-negative
 	    int adjustment = min < 0 ? -min : 0;
@@ -60,11 +56,14 @@ public class RadixSorter extends AbstractSorter
 	    }
 
 	    for (int exp = 1; exp <= maxExp; exp *= 10) {
-	        countingSort(points, exp, Point.xORy, adjustment);
+	        countingSort(points, exp, pointKey, adjustment);
+	        countAllocation(points.length, OperationCounter.REFERENCE_BYTES); // output[] of the pass.
+	        countAllocation(10, OperationCounter.INT_BYTES);                  // counts[] of the pass.
+	        countWrites(2L * points.length);
 	    }
 	}
 
-	private static void countingSort(Point[] arr, int exp, boolean xORy, int adjustment) {
+	private static void countingSort(Point[] arr, int exp, ToIntFunction<Point> key, int adjustment) {
 	    int size = arr.length;
 	    Point[] output = new Point[size];
 	    
@@ -77,7 +76,7 @@ public class RadixSorter extends AbstractSorter
 
 	    // Count occurrences of digits at the current place value
 	    for (int i = 0; i < size; i++) {
-	        int value = xORy ? arr[i].getX() : arr[i].getY();
+	        int value = key.applyAsInt(arr[i]);
 	        int digit = ((value + adjustment) / exp) % 10;
 
 	        // Ensure that the digit is within the valid range (0 to 9)
@@ -95,7 +94,7 @@ public class RadixSorter extends AbstractSorter
 
 	    // Build the output array by placing elements in their sorted positions
 	    for (int i = size - 1; i >= 0; i--) {
-	        int value = xORy ? arr[i].getX() : arr[i].getY();
+	        int value = key.applyAsInt(arr[i]);
 	        int digit = ((value + adjustment) / exp) % 10;
 	        int index = counts[digit] - 1;
 	        output[index] = arr[i];
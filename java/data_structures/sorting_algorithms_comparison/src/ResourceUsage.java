@@ -0,0 +1,161 @@
+package src;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class measures the heap allocations and garbage collections during a piece of work, such as one
+ * round of sorting in PointScanner.scan(). start() takes a snapshot and stop() returns the difference to
+ * the snapshot.
+ *
+ * Allocated bytes are those of the current thread, read from com.sun.management.ThreadMXBean. Work
+ * handed to other threads, such as the workers of ParallelMergeSorter, is not included. The number is
+ * -1 if the JVM cannot measure it. Collections and their time come from the GarbageCollectorMXBeans and
+ * cover the whole JVM, so a collection counts if it happens during the work, whichever thread caused it.
+ *
+ * The snapshots allocate nothing between the two readings of the allocation counter, so an
+ * allocation-free sort measures 0 bytes.
+ *
+ */
+
+public class ResourceUsage
+{
+	private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+	private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private final long allocatedBytes;  // -1 if not supported.
+	private final long gcCount;
+	private final long gcTimeMillis;
+
+
+	private ResourceUsage(long allocatedBytes, long gcCount, long gcTimeMillis) {
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcTimeMillis = gcTimeMillis;
+	}
+
+
+	/**
+	 * Takes a snapshot of the counters, to be passed to stop() after the work.
+	 *
+	 * @return  the snapshot
+	 */
+	public static ResourceUsage start() {
+		long count = collections();
+		long time = collectionMillis();
+		// The object is allocated before its arguments are evaluated, so it is not part of the difference.
+		return new ResourceUsage(allocatedBytes(), count, time);
+	}
+
+
+	/**
+	 * Returns the allocations and collections since this snapshot was taken by start().
+	 *
+	 * @return  the differences
+	 */
+	public ResourceUsage stop() {
+		long allocated = allocatedBytes();  // Read first, before anything here allocates.
+		long count = collections();
+		long time = collectionMillis();
+
+		return new ResourceUsage((allocated < 0 || allocatedBytes < 0) ? -1 : allocated - allocatedBytes,
+				count - gcCount, time - gcTimeMillis);
+	}
+
+
+	/**
+	 * Adds two measurements, such as those of the two rounds of a scan.
+	 *
+	 * @param other
+	 * @return  the sum
+	 */
+	public ResourceUsage plus(ResourceUsage other) {
+		long allocated = (allocatedBytes < 0 || other.allocatedBytes < 0) ? -1 : allocatedBytes + other.allocatedBytes;
+		return new ResourceUsage(allocated, gcCount + other.gcCount, gcTimeMillis + other.gcTimeMillis);
+	}
+
+
+	/**
+	 * @return  bytes allocated by the current thread, or -1 if the JVM cannot measure them
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * @return  number of garbage collections in the JVM
+	 */
+	public long getGcCount() {
+		return gcCount;
+	}
+
+	/**
+	 * @return  accumulated collection time in milliseconds, as reported by the collectors
+	 */
+	public long getGcTimeMillis() {
+		return gcTimeMillis;
+	}
+
+
+	/**
+	 * @return  the measurement in the format "heap 8000016 bytes, gc 1 in 12 ms"
+	 */
+	@Override
+	public String toString() {
+		return "heap " + (allocatedBytes < 0 ? "n/a" : allocatedBytes + " bytes") + ", gc " + gcCount + " in "
+				+ gcTimeMillis + " ms";
+	}
+
+
+	// Returns the number of collections so far, over all collectors. Indexed loop: no iterator is allocated.
+	private static long collections() {
+		long count = 0;
+		for (int i = 0; i < COLLECTORS.size(); i++) {
+			count += Math.max(0, COLLECTORS.get(i).getCollectionCount());
+		}
+		return count;
+	}
+
+
+	// Returns the accumulated collection time so far in milliseconds, over all collectors.
+	private static long collectionMillis() {
+		long time = 0;
+		for (int i = 0; i < COLLECTORS.size(); i++) {
+			time += Math.max(0, COLLECTORS.get(i).getCollectionTime());
+		}
+		return time;
+	}
+
+
+	// Returns the bytes allocated so far by the current thread, or -1.
+	private static long allocatedBytes() {
+		return (THREADS != null) ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+
+	// Returns the thread bean with allocation accounting switched on, or null if the JVM has none.
+	private static com.sun.management.ThreadMXBean threadBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		if (!threads.isThreadAllocatedMemoryEnabled()) {
+			threads.setThreadAllocatedMemoryEnabled(true);
+		}
+		return threads;
+	}
+}
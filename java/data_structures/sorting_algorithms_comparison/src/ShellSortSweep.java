@@ -0,0 +1,139 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class sweeps the gap sequences of ShellSorter over the input distributions and sizes of
+ * SorterBenchmark. For every cell it reports the wall time and the number of comparisons of a scan, that is,
+ * a sort by x followed by a sort by y. Comparisons are also given relative to n log2 n, which makes rows
+ * of different sizes comparable.
+ *
+ * All cells run in this JVM. Every sequence runs the same code with a different gap array, so the JIT
+ * warmup of one sequence serves the others as well.
+ *
+ * Usage: java -cp <classes> src.ShellSortSweep [options]
+ *
+ *     --sequences KNUTH,CIURA         gap sequences to run (default: every GapSequence value)
+ *     --sizes 1000,10000              input sizes (default: 1000,10000,100000,1000000)
+ *     --distributions UNIFORM,SORTED  input distributions (default: PointDistribution.standard())
+ *     --warmup 3                      warmup iterations per cell (default: 3)
+ *     --iterations 5                  measured iterations per cell (default: 5)
+ *     --seed 42                       seed of the input generator (default: 42)
+ *
+ */
+
+public class ShellSortSweep
+{
+	private GapSequence[] sequences = GapSequence.values();
+	private int[] sizes = { 1000, 10000, 100000, 1000000 };
+	private PointDistribution[] distributions = PointDistribution.standard();
+	private int warmup = 3;
+	private int iterations = 5;
+	private long seed = 42;
+
+
+	/**
+	 * Runs the sweep.
+	 *
+	 * @param args  command line options, see the class comment
+	 * @throws IllegalArgumentException if an option is unknown or malformed
+	 */
+	public static void main(String[] args) throws IllegalArgumentException {
+		ShellSortSweep sweep = new ShellSortSweep();
+		sweep.parseOptions(args);
+		sweep.run();
+	}
+
+
+	// Reads the command line options into the instance variables.
+	private void parseOptions(String[] args) throws IllegalArgumentException {
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+			}
+			String value = args[i + 1];
+
+			switch (args[i]) {
+				case "--sequences":
+					sequences = Arrays.stream(value.split(",")).map(GapSequence::valueOf).toArray(GapSequence[]::new);
+					break;
+				case "--sizes":
+					sizes = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+					break;
+				case "--distributions":
+					distributions = Arrays.stream(value.split(",")).map(PointDistribution::valueOf).toArray(PointDistribution[]::new);
+					break;
+				case "--warmup":
+					warmup = Integer.parseInt(value);
+					break;
+				case "--iterations":
+					iterations = Integer.parseInt(value);
+					break;
+				case "--seed":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		if (iterations < 1 || warmup < 0) {
+			throw new IllegalArgumentException("Invalid number of iterations or warmup iterations");
+		}
+	}
+
+
+	// Runs every cell and prints one row per cell.
+	private void run() {
+		System.out.println("warmup " + warmup + ", iterations " + iterations + ", seed " + seed);
+		System.out.println();
+		System.out.println(String.format("%-10s %-17s %10s %6s %16s %16s %10s",
+				"sequence", "dist", "size", "gaps", "ns/op", "compares/op", "/ n log n"));
+
+		for (PointDistribution dist : distributions) {
+			for (int size : sizes) {
+				Point[] input = dist.generate(size, seed);
+
+				for (GapSequence sequence : sequences) {
+					long time = 0;
+
+					for (int i = 0; i < warmup + iterations; i++) {
+						ShellSorter sorter = new ShellSorter(input, sequence);
+
+						long start = System.nanoTime();
+						sorter.setComparator(0);
+						sorter.sort();
+						sorter.setComparator(1);
+						sorter.sort();
+						long end = System.nanoTime();
+
+						if (i >= warmup) {
+							time += end - start;
+						}
+					}
+
+					// One counted scan, kept out of the timed ones. The same input always takes the same comparisons.
+					ShellSorter sorter = new ShellSorter(input, sequence);
+					OperationCounter counter = new OperationCounter();
+					sorter.setCounter(counter);
+					sorter.setComparator(0);
+					sorter.sort();
+					sorter.setComparator(1);
+					sorter.sort();
+					long comparisons = counter.getComparisons();
+
+					double nLogN = Math.max(size * Math.log(size) / Math.log(2), 1);
+					System.out.println(String.format("%-10s %-17s %10d %6d %16d %16d %10.2f", sequence, dist, size,
+							sequence.gaps(size).length, time / iterations, comparisons, comparisons / nLogN));
+				}
+			}
+		}
+	}
+}
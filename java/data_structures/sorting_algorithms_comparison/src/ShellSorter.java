@@ -9,23 +9,39 @@ package src;
 
 /**
  * 
- * This class implements the shell sort algorithm.   
+ * This class implements the shell sort algorithm. The gap sequence is a GapSequence, Shell's n/2, n/4, ..., 1
+ * by default. ShellSortSweep compares the sequences by the comparisons an OperationCounter counts.
  *
  */
 
 public class ShellSorter extends AbstractSorter
 {
-
-	// Other private instance variables if needed
+	private final GapSequence sequence;  // gaps used by sort().
 	
 	/** 
 	 * Constructor takes an array of points.  It invokes the superclass constructor, and also 
-	 * set the instance variables algorithm in the superclass.
+	 * set the instance variables algorithm in the superclass. Uses Shell's gap sequence.
 	 *  
 	 * @param pts   input array of integers
 	 */
 	public ShellSorter(Point[] pts) {
+		this(pts, GapSequence.SHELL);
+	}
+
+
+	/**
+	 * Constructor takes an array of points and the gap sequence to sort with.
+	 *
+	 * @param pts       input array of points
+	 * @param sequence  gap sequence
+	 * @throws IllegalArgumentException if sequence == null
+	 */
+	public ShellSorter(Point[] pts, GapSequence sequence) throws IllegalArgumentException {
 		super(pts);
+		if (sequence == null) {
+			throw new IllegalArgumentException("Gap sequence cannot be null");
+		}
+		this.sequence = sequence;
 		algorithm = "shell sort";
 	}
 
@@ -38,8 +54,10 @@ public class ShellSorter extends AbstractSorter
 	public void sort() {
 		int n = points.length;
         
-        // Start with a large gap and reduce it until gap becomes 1
-        for (int gap = n / 2; gap > 0; gap /= 2) {
+        // Go through the gaps from the largest down to 1
+        for (int gap : sequence.gaps(n)) {
+            long writes = 0;
+
             // Perform insertion sort for elements at each gap
             for (int i = gap; i < n; i++) {
                 Point key = points[i];
@@ -52,12 +70,11 @@ public class ShellSorter extends AbstractSorter
                 }
                 
                 points[j] = key;
+                writes += (i - j) / gap + 1;
             }
+            countWrites(writes);
         }
 	}
-
-	
-
 }
 
 
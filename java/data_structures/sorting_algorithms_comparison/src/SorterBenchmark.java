@@ -0,0 +1,399 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class is a benchmark harness for the point scanning algorithms. Each benchmark case is run over a grid
+ * of input sizes and input distributions. Every cell of the grid is measured in its own forked JVM with a
+ * number of warmup iterations before the measured iterations, so that no algorithm pays for the JIT warmup
+ * of another. The harness reports the average time per scan (ns/op) together with the allocation per scan
+ * and the allocation rate.
+ *
+ * Usage: java -cp <classes> src.SorterBenchmark [options]
+ *
+ *     --cases QuickSort,MergeSort     benchmark cases to run (default: every Algorithm value)
+ *     --sizes 1000,10000              input sizes (default: 1000,10000,100000,1000000,10000000)
+ *     --distributions UNIFORM,SORTED  input distributions (default: PointDistribution.standard())
+ *     --forks 2                       forked JVMs per cell, 0 runs in this JVM (default: 1)
+ *     --warmup 3                      warmup iterations per fork (default: 3)
+ *     --iterations 5                  measured iterations per fork (default: 5)
+ *     --seed 42                       seed of the input generator (default: 42)
+ *     --quadratic-limit 10000         largest size given to the quadratic algorithms (default: 10000)
+ *     --timeout 600                   seconds a forked JVM may run before it is killed (default: 600)
+ *     --jvm-args -Xmx8g               extra arguments for forked JVMs, separated by commas
+ *
+ * Besides one case per Algorithm value, the case ParallelMergeSort@p runs ParallelMergeSorter with p threads,
+ * and DaryHeapSort@d runs DaryHeapSorter with d children per node. For instance, the speedup curve of the
+ * parallel mergesort and the comparison of heap arities are obtained by running
+ *
+ *     --cases MergeSort,ParallelMergeSort@1,ParallelMergeSort@2,ParallelMergeSort@4,ParallelMergeSort@8
+ *     --cases HeapSort,DaryHeapSort@2,DaryHeapSort@4,DaryHeapSort@8 --sizes 1e6,1e7
+ *
+ */
+
+public class SorterBenchmark
+{
+	private static final Algorithm[] QUADRATIC = { Algorithm.SelectionSort, Algorithm.InsertionSort, Algorithm.BubbleSort };
+
+	private static final String RESULT = "RESULT";   // prefix of a measurement line written by a forked JVM.
+	private static final String ERROR = "ERROR";     // prefix of a failure line written by a forked JVM.
+
+	private List<String> cases = new ArrayList<String>();
+	private int[] sizes = { 1000, 10000, 100000, 1000000, 10000000 };
+	private PointDistribution[] distributions = PointDistribution.standard();
+	private int forks = 1;
+	private int warmup = 3;
+	private int iterations = 5;
+	private long seed = 42;
+	private int quadraticLimit = 10000;
+	private long timeout = 600;
+	private List<String> jvmArgs = new ArrayList<String>();
+
+
+	/**
+	 * Runs the benchmark grid, or a single cell when invoked as a forked JVM.
+	 *
+	 * @param args  command line options, see the class comment
+	 * @throws IllegalArgumentException if an option is unknown or malformed
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, IllegalArgumentException {
+		if (args.length > 0 && args[0].equals("--child")) {
+			runChild(args);
+			return;
+		}
+
+		SorterBenchmark benchmark = new SorterBenchmark();
+		benchmark.parseOptions(args);
+		benchmark.run();
+	}
+
+
+	/**
+	 * Returns the default benchmark cases by name. A case consumes a fresh copy of the input points for every
+	 * operation. There is one case per Algorithm value, each carrying out a full scan() on that copy, which
+	 * the scanner takes over instead of copying it again.
+	 *
+	 * @return  map from case name to workload
+	 */
+	static Map<String, Consumer<Point[]>> cases() {
+		Map<String, Consumer<Point[]>> cases = new LinkedHashMap<String, Consumer<Point[]>>();
+
+		for (Algorithm algo : Algorithm.values()) {
+			cases.put(algo.name(), pts -> new PointScanner(pts, algo, false).scan());
+		}
+
+		return cases;
+	}
+
+
+	/**
+	 * Returns the workload of a default case, or of a parameterized case such as ParallelMergeSort@4.
+	 *
+	 * @param name  case name
+	 * @return      workload, or null if there is no such case
+	 */
+	static Consumer<Point[]> workload(String name) {
+		int at = name.indexOf('@');
+		if (at < 0) {
+			return cases().get(name);
+		}
+
+		int parameter = Integer.parseInt(name.substring(at + 1));
+		switch (name.substring(0, at)) {
+			case "ParallelMergeSort":
+				return pts -> sortBothAxes(new ParallelMergeSorter(PointScanner.PLACEHOLDER, parameter), pts);
+			case "DaryHeapSort":
+				return pts -> sortBothAxes(new DaryHeapSorter(PointScanner.PLACEHOLDER, parameter), pts);
+			default:
+				return null;
+		}
+	}
+
+
+	/**
+	 * Sorts pts in place by x and then by y, as scan() does. The sorter adopts pts instead of copying it, as
+	 * the sorters of PointScanner do, so that the parameterized cases measure the same work as the
+	 * default ones.
+	 *
+	 * @param sorter  sorter constructed on PointScanner.PLACEHOLDER
+	 * @param pts     points to sort
+	 */
+	static void sortBothAxes(AbstractSorter sorter, Point[] pts) {
+		sorter.adopt(pts);
+		sorter.setComparator(0);
+		sorter.sort();
+		sorter.setComparator(1);
+		sorter.sort();
+	}
+
+
+	// Reads the command line options into the instance variables.
+	private void parseOptions(String[] args) throws IllegalArgumentException {
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+			}
+			String value = args[i + 1];
+
+			switch (args[i]) {
+				case "--cases":
+					cases = Arrays.asList(value.split(","));
+					break;
+				case "--sizes":
+					sizes = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+					break;
+				case "--distributions":
+					distributions = Arrays.stream(value.split(",")).map(PointDistribution::valueOf).toArray(PointDistribution[]::new);
+					break;
+				case "--forks":
+					forks = Integer.parseInt(value);
+					break;
+				case "--warmup":
+					warmup = Integer.parseInt(value);
+					break;
+				case "--iterations":
+					iterations = Integer.parseInt(value);
+					break;
+				case "--seed":
+					seed = Long.parseLong(value);
+					break;
+				case "--quadratic-limit":
+					quadraticLimit = Integer.parseInt(value);
+					break;
+				case "--timeout":
+					timeout = Long.parseLong(value);
+					break;
+				case "--jvm-args":
+					jvmArgs = Arrays.asList(value.split(","));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		if (cases.isEmpty()) {
+			cases = new ArrayList<String>(cases().keySet());
+		}
+		for (String name : cases) {
+			if (workload(name) == null) {
+				throw new IllegalArgumentException("Unknown benchmark case " + name);
+			}
+		}
+		if (iterations < 1 || warmup < 0 || forks < 0) {
+			throw new IllegalArgumentException("Invalid number of iterations, warmup iterations, or forks");
+		}
+	}
+
+
+	// Runs every cell of the grid and prints one row per cell.
+	private void run() throws IOException, InterruptedException {
+		System.out.println("forks " + forks + ", warmup " + warmup + ", iterations " + iterations + ", seed " + seed);
+		System.out.println();
+		System.out.println(String.format("%-22s %-17s %10s %16s %12s %16s %12s",
+				"case", "dist", "size", "ns/op", "error", "alloc B/op", "alloc MB/s"));
+
+		for (String name : cases) {
+			for (PointDistribution dist : distributions) {
+				for (int size : sizes) {
+					String prefix = String.format("%-22s %-17s %10d ", name, dist, size);
+
+					if (isQuadratic(name) && size > quadraticLimit) {
+						System.out.println(prefix + "skipped (quadratic limit " + quadraticLimit + ")");
+						continue;
+					}
+
+					List<long[]> samples = new ArrayList<long[]>();
+					String error = null;
+
+					if (forks == 0) {
+						error = measure(name, dist, size, seed, samples);
+					}
+					for (int f = 0; f < forks && error == null; f++) {
+						error = fork(name, dist, size, samples);
+					}
+
+					System.out.println(prefix + (error != null ? error : summarize(samples)));
+				}
+			}
+		}
+	}
+
+
+	// Returns true if the named case runs one of the quadratic algorithms.
+	static boolean isQuadratic(String name) {
+		for (Algorithm algo : QUADRATIC) {
+			if (algo.name().equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	// Runs one cell in a new JVM and collects the measured samples. Returns an error message on failure.
+	private String fork(String name, PointDistribution dist, int size, List<long[]> samples) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(jvmArgs);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SorterBenchmark.class.getName());
+		command.add("--child");
+		command.add(name);
+		command.add(dist.name());
+		command.add(Integer.toString(size));
+		command.add(Long.toString(seed));
+		command.add(Integer.toString(warmup));
+		command.add(Integer.toString(iterations));
+
+		Process child = new ProcessBuilder(command).redirectErrorStream(true).start();
+		String error = null;
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()))) {
+			// The reader is drained on a separate thread so that the timeout below can still fire.
+			List<String> lines = new ArrayList<String>();
+			Thread drain = new Thread(() -> {
+				try {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						synchronized (lines) {
+							lines.add(line);
+						}
+					}
+				}
+				catch (IOException e) {
+					// Stream closed by destroyForcibly().
+				}
+			});
+			drain.start();
+
+			if (!child.waitFor(timeout, TimeUnit.SECONDS)) {
+				child.destroyForcibly();
+				error = "timed out after " + timeout + " s";
+			}
+			drain.join();
+
+			for (String line : lines) {
+				String[] fields = line.split(" ", 3);
+
+				if (fields[0].equals(RESULT)) {
+					samples.add(new long[] { Long.parseLong(fields[1]), Long.parseLong(fields[2]) });
+				}
+				else if (fields[0].equals(ERROR) && error == null) {
+					error = line.substring(ERROR.length() + 1);
+				}
+			}
+		}
+
+		if (error == null && child.exitValue() != 0) {
+			error = "forked JVM exited with " + child.exitValue();
+		}
+		return error;
+	}
+
+
+	// Entry point of a forked JVM. Measures one cell and writes one line per measured iteration.
+	private static void runChild(String[] args) {
+		List<long[]> samples = new ArrayList<long[]>();
+		String error = measure(args[1], PointDistribution.valueOf(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]),
+				Integer.parseInt(args[5]), Integer.parseInt(args[6]), samples);
+
+		for (long[] sample : samples) {
+			System.out.println(RESULT + " " + sample[0] + " " + sample[1]);
+		}
+		if (error != null) {
+			System.out.println(ERROR + " " + error);
+		}
+	}
+
+
+	// Measures one cell in this JVM using the instance settings.
+	private String measure(String name, PointDistribution dist, int size, long seed, List<long[]> samples) {
+		return measure(name, dist, size, seed, warmup, iterations, samples);
+	}
+
+
+	/**
+	 * Measures one cell in this JVM. Each sample holds the elapsed nanoseconds and the bytes allocated by the
+	 * current thread during one operation. The input is copied before every operation, outside of the timing.
+	 *
+	 * @return  null on success, or a message describing the failure
+	 */
+	private static String measure(String name, PointDistribution dist, int size, long seed, int warmup, int iterations, List<long[]> samples) {
+		Consumer<Point[]> workload = workload(name);
+		Point[] input = dist.generate(size, seed);
+
+		try {
+			for (int i = 0; i < warmup + iterations; i++) {
+				Point[] pts = input.clone();
+
+				long startBytes = allocatedBytes();
+				long startTime = System.nanoTime();
+				workload.accept(pts);
+				long endTime = System.nanoTime();
+				long endBytes = allocatedBytes();
+
+				if (i >= warmup) {
+					samples.add(new long[] { endTime - startTime, endBytes - startBytes });
+				}
+			}
+		}
+		catch (OutOfMemoryError | StackOverflowError | RuntimeException e) {
+			return e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+		}
+
+		return null;
+	}
+
+
+	// Returns the bytes allocated so far by the current thread, or 0 if the JVM cannot report them.
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+
+	// Formats the mean time per operation, its standard deviation, and the allocation figures.
+	private static String summarize(List<long[]> samples) {
+		double meanTime = 0, meanBytes = 0;
+		for (long[] sample : samples) {
+			meanTime += sample[0];
+			meanBytes += sample[1];
+		}
+		meanTime /= samples.size();
+		meanBytes /= samples.size();
+
+		double variance = 0;
+		for (long[] sample : samples) {
+			variance += (sample[0] - meanTime) * (sample[0] - meanTime);
+		}
+		double error = samples.size() > 1 ? Math.sqrt(variance / (samples.size() - 1)) : 0;
+
+		// Bytes per nanosecond times 1e9 / 2^20 gives megabytes per second.
+		double rate = meanBytes / meanTime * 1e9 / (1 << 20);
+
+		return String.format("%16.0f %12.0f %16.0f %12.1f", meanTime, error, meanBytes, rate);
+	}
+}
@@ -0,0 +1,130 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class implements quicksort with Bentley-McIlroy three-way partitioning. Points equal to the pivot
+ * are gathered in the middle and excluded from both recursive calls, so inputs with many duplicate
+ * coordinates take O(n log d) comparisons for d distinct values instead of degrading to O(n^2).
+ *
+ * The pivot is the median of three for small subarrays and Tukey's ninther for larger ones. Subarrays
+ * below a cutoff are finished by insertion sort, and only the smaller side is sorted recursively so the
+ * stack depth stays logarithmic.
+ *
+ */
+
+public class ThreeWayQuickSorter extends AbstractSorter
+{
+	private static final int INSERTION_CUTOFF = 12;  // subarrays up to this length are insertion sorted.
+	private static final int NINTHER_CUTOFF = 40;    // subarrays above this length use the ninther.
+
+	/**
+	 * Constructor takes an array of points.  It invokes the superclass constructor, and also
+	 * set the instance variables algorithm in the superclass.
+	 *
+	 * @param pts   input array of points
+	 */
+	public ThreeWayQuickSorter(Point[] pts) {
+		super(pts);
+		algorithm = "3-way quicksort";
+	}
+
+
+	/**
+	 * Carry out three-way quicksort on the array points[] of the AbstractSorter class.
+	 *
+	 */
+	@Override
+	public void sort() {
+		quickSortRec(0, points.length - 1);
+	}
+
+
+	/**
+	 * Operates on the subarray of points[] with indices between first and last. Loops on the larger side.
+	 *
+	 * @param first  starting index of the subarray
+	 * @param last   ending index of the subarray
+	 */
+	private void quickSortRec(int first, int last) {
+		while (last - first >= INSERTION_CUTOFF) {
+			swap(first, choosePivot(first, last));
+			Point pivot = points[first];
+
+			// Bentley-McIlroy partition. Points equal to the pivot are parked at both ends,
+			// [first, p] and [q, last], while i and j sweep inwards.
+			int i = first, j = last + 1;
+			int p = first, q = last + 1;
+
+			while (true) {
+				while (pointComparator.compare(points[++i], pivot) < 0) {
+					if (i == last) {
+						break;
+					}
+				}
+				while (pointComparator.compare(pivot, points[--j]) < 0) {
+					if (j == first) {
+						break;
+					}
+				}
+
+				if (i == j && pointComparator.compare(points[i], pivot) == 0) {
+					swap(++p, i);
+				}
+				if (i >= j) {
+					break;
+				}
+
+				swap(i, j);
+				if (pointComparator.compare(points[i], pivot) == 0) {
+					swap(++p, i);
+				}
+				if (pointComparator.compare(points[j], pivot) == 0) {
+					swap(--q, j);
+				}
+			}
+
+			// Moves the parked equal points to the middle: [first, j] < pivot, (j, i) == pivot, [i, last] > pivot.
+			i = j + 1;
+			for (int k = first; k <= p; k++) {
+				swap(k, j--);
+			}
+			for (int k = last; k >= q; k--) {
+				swap(k, i++);
+			}
+
+			if (j - first < last - i) {
+				quickSortRec(first, j);
+				first = i;
+			}
+			else {
+				quickSortRec(i, last);
+				last = j;
+			}
+		}
+
+		insertionSort(first, last);
+	}
+
+
+	// Returns the index of the median of three, or of Tukey's ninther for larger subarrays.
+	private int choosePivot(int first, int last) {
+		int size = last - first + 1;
+		int middle = first + size / 2;
+
+		if (size <= NINTHER_CUTOFF) {
+			return medianOfThree(first, middle, last);
+		}
+
+		int eps = size / 8;
+		int m1 = medianOfThree(first, first + eps, first + 2 * eps);
+		int m2 = medianOfThree(middle - eps, middle, middle + eps);
+		int m3 = medianOfThree(last - 2 * eps, last - eps, last);
+		return medianOfThree(m1, m2, m3);
+	}
+}
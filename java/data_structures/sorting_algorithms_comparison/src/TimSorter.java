@@ -12,6 +12,9 @@ import java.util.Arrays;
 /**
  * 
  * This class implements timsort.   
+ * 
+ * The sort is Arrays.sort(), so an OperationCounter sees only its comparisons. The writes and the 
+ * temporary array of up to n/2 references inside Arrays.sort() are not counted.
  *
  */
 
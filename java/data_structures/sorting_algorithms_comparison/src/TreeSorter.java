@@ -10,13 +10,32 @@ package src;
 /**
  * 
  * This class implements the tree sort algorithm.   
+ * 
+ * The points are inserted into a red-black tree keyed by the current coordinate, so the tree stays 
+ * balanced for sorted and duplicate-heavy input. The tree lives in primitive arrays indexed by node 
+ * number instead of node objects. Points with equal keys share one node, which chains them in insertion 
+ * order, so the sort is stable. Insertion and the in-order traversal are iterative.
  *
  */
 
 public class TreeSorter extends AbstractSorter
 {
+	private static final int NIL = 0;  // sentinel node: black, stands for every missing child.
+
+	// Node arrays, indexed by node number 1, 2, ...
+	private int[] key;      // coordinate shared by the points of the node.
+	private int[] left;     // left child.
+	private int[] right;    // right child.
+	private int[] parent;   // parent, NIL for the root.
+	private boolean[] red;  // color of the node.
+	private int[] head;     // index in points[] of the first point of the node.
+	private int[] tail;     // index in points[] of the last point of the node.
+
+	private int[] next;     // for every index in points[], the next point of the same node, or -1.
 
-	// Other private instance variables if needed
+	private int root;
+
+	private long comparisons;  // key comparisons of the current sort(), counted at its end.
 	
 	/** 
 	 * Constructor takes an array of points.  It invokes the superclass constructor, and also 
@@ -35,63 +54,197 @@ public class TreeSorter extends AbstractSorter
 	 * 
 	 */
 	@Override
-    public void sort() {
-        TreeNode root = null;
-        for (Point point : points) {
-            root = insert(root, point);
-        }
-        
-        inOrderTraversal(root, 0);
-    }
-
-    // Definition for a binary tree node
-    private class TreeNode {
-        Point point;
-        TreeNode left, right;
-
-        TreeNode(Point point) {
-            this.point = point;
-            this.left = this.right = null;
-        }
-    }
-
-    // Function to insert a new node into the binary tree
-    private TreeNode insert(TreeNode root, Point point) {
-        if (root == null) {
-            root = new TreeNode(point);
-            return root;
-        }
-
-        // Compare and insert in the appropriate subtree
-        if (pointComparator.compare(point, root.point) < 0) {
-            root.left = insert(root.left, point);
-        } 
-        else {
-            root.right = insert(root.right, point);
-        }
-
-        return root;
-    }
-
-    // In-order traversal to populate the sorted array
-    private void inOrderTraversal(TreeNode root, int index) {
-        if (root != null) {
-            inOrderTraversal(root.left, index);
-            points[index] = root.point;
-            index++;
-            inOrderTraversal(root.right, index);
-        }
-    }
+	public void sort() {
+		int size = points.length;
+		key = new int[size + 1];
+		left = new int[size + 1];
+		right = new int[size + 1];
+		parent = new int[size + 1];
+		red = new boolean[size + 1];
+		head = new int[size + 1];
+		tail = new int[size + 1];
+		next = new int[size];
+		root = NIL;
+		comparisons = 0;
+		countAllocation(6L * (size + 1) + size, OperationCounter.INT_BYTES);
+		countAllocation(size + 1, 1);  // red[]
+
+		int nodes = 0;
+		for (int i = 0; i < size; i++) {
+			nodes = insert(i, nodes);
+		}
+
+		inOrderTraversal();
+		countComparisons(comparisons);
+
+		key = left = right = parent = head = tail = next = null;
+		red = null;
+	}
 
-	
+
+	/**
+	 * Inserts the point at index i of points[] into the tree.
+	 * 
+	 * @param i      index of the point
+	 * @param nodes  number of nodes so far
+	 * @return       number of nodes afterwards
+	 */
+	private int insert(int i, int nodes) {
+		int k = pointKey.applyAsInt(points[i]);
+		next[i] = -1;
+
+		// Walks down to the node holding k, or to the parent of the new node.
+		int y = NIL;
+		int x = root;
+		while (x != NIL) {
+			y = x;
+			comparisons++; // One three-way comparison per node, as a comparator would make.
+			if (k < key[x]) {
+				x = left[x];
+			}
+			else if (k > key[x]) {
+				x = right[x];
+			}
+			else {
+				// Appends the point to the existing node.
+				next[tail[x]] = i;
+				tail[x] = i;
+				return nodes;
+			}
+		}
+
+		int z = ++nodes;
+		key[z] = k;
+		left[z] = right[z] = NIL;
+		parent[z] = y;
+		red[z] = true;
+		head[z] = tail[z] = i;
+
+		if (y == NIL) {
+			root = z;
+		}
+		else if (k < key[y]) {
+			left[y] = z;
+		}
+		else {
+			right[y] = z;
+		}
+
+		insertFixup(z);
+		return nodes;
+	}
 
 
+	// Restores the red-black properties after inserting the red node z.
+	private void insertFixup(int z) {
+		while (red[parent[z]]) {
+			int p = parent[z];
+			int g = parent[p];
+
+			if (p == left[g]) {
+				int uncle = right[g];
+				if (red[uncle]) {
+					red[p] = red[uncle] = false;
+					red[g] = true;
+					z = g;
+				}
+				else {
+					if (z == right[p]) {
+						z = p;
+						rotateLeft(z);
+						p = parent[z];
+					}
+					red[p] = false;
+					red[g] = true;
+					rotateRight(g);
+				}
+			}
+			else {
+				int uncle = left[g];
+				if (red[uncle]) {
+					red[p] = red[uncle] = false;
+					red[g] = true;
+					z = g;
+				}
+				else {
+					if (z == left[p]) {
+						z = p;
+						rotateRight(z);
+						p = parent[z];
+					}
+					red[p] = false;
+					red[g] = true;
+					rotateLeft(g);
+				}
+			}
+		}
+		red[root] = false;
+	}
 
 
+	private void rotateLeft(int x) {
+		int y = right[x];
+		right[x] = left[y];
+		if (left[y] != NIL) {
+			parent[left[y]] = x;
+		}
+		replace(x, y);
+		left[y] = x;
+		parent[x] = y;
+	}
 
-}
 
+	private void rotateRight(int x) {
+		int y = left[x];
+		left[x] = right[y];
+		if (right[y] != NIL) {
+			parent[right[y]] = x;
+		}
+		replace(x, y);
+		right[y] = x;
+		parent[x] = y;
+	}
 
 
+	// Puts node y in the place of node x under x's parent.
+	private void replace(int x, int y) {
+		int p = parent[x];
+		parent[y] = p;
+		if (p == NIL) {
+			root = y;
+		}
+		else if (x == left[p]) {
+			left[p] = y;
+		}
+		else {
+			right[p] = y;
+		}
+	}
 
 
+	// In-order traversal to populate the sorted array, with an explicit stack of node numbers.
+	private void inOrderTraversal() {
+		Point[] unsorted = points.clone();
+		countAllocation(points.length, OperationCounter.REFERENCE_BYTES);
+		countWrites(2L * points.length); // The clone and the traversal.
+
+		// A red-black tree with n nodes is at most 2 log2(n + 1) high.
+		int[] stack = new int[2 * 32 + 2];
+		int top = 0;
+		int index = 0;
+		int x = root;
+
+		while (x != NIL || top > 0) {
+			while (x != NIL) {
+				stack[top++] = x;
+				x = left[x];
+			}
+
+			x = stack[--top];
+			for (int i = head[x]; i != -1; i = next[i]) {
+				points[index++] = unsorted[i];
+			}
+			x = right[x];
+		}
+	}
+}
@@ -0,0 +1,319 @@
+package src;
+
+/**
+ *
+ * @author Onur Onal
+ *
+ */
+
+/**
+ *
+ * This class maintains the median coordinate point (MCP) of the most recent points of a stream. It holds at
+ * most windowSize points. Adding a point to a full window evicts the oldest one, and the oldest point can
+ * also be evicted explicitly. The MCP is the one PointScanner would report for the points in the window.
+ *
+ * The window is a ring buffer of slots. Each coordinate is split over two heaps as in IncrementalMcpTracker,
+ * but the heaps hold slot numbers instead of values and record the position of every slot, so the value of
+ * an evicted point is removed from the middle of its heap in O(log n). Nothing is deleted lazily, so memory
+ * stays bounded by the window size. Adding and evicting take O(log n) time and allocate nothing, and
+ * currentMcp() takes O(1).
+ *
+ */
+
+public class WindowedMcpTracker
+{
+	private final int windowSize;  // largest number of points in the window.
+
+	private final Median medianX;  // x-coordinates of the points in the window.
+	private final Median medianY;  // y-coordinates of the points in the window.
+
+	private int oldest = 0;  // slot of the oldest point in the window.
+	private int size = 0;    // number of points in the window.
+
+
+	/**
+	 * Constructs an empty window.
+	 *
+	 * @param windowSize  largest number of points kept
+	 * @throws IllegalArgumentException if windowSize < 1
+	 */
+	public WindowedMcpTracker(int windowSize) throws IllegalArgumentException {
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("Window size must be at least 1");
+		}
+		this.windowSize = windowSize;
+		medianX = new Median(windowSize);
+		medianY = new Median(windowSize);
+	}
+
+
+	/**
+	 * Adds a point, evicting the oldest point if the window is full.
+	 *
+	 * @param p
+	 * @throws IllegalArgumentException if p == null
+	 */
+	public void add(Point p) throws IllegalArgumentException {
+		if (p == null) {
+			throw new IllegalArgumentException("Point cannot be null");
+		}
+		add(p.getX(), p.getY());
+	}
+
+
+	/**
+	 * Adds the point (x, y), evicting the oldest point if the window is full.
+	 *
+	 * @param x
+	 * @param y
+	 */
+	public void add(int x, int y) {
+		int slot;
+		if (size == windowSize) {
+			// The new point takes over the slot of the oldest one.
+			slot = oldest;
+			oldest = (oldest + 1) % windowSize;
+			medianX.remove(slot);
+			medianY.remove(slot);
+		}
+		else {
+			slot = (oldest + size) % windowSize;
+			size++;
+		}
+
+		medianX.insert(slot, x);
+		medianY.insert(slot, y);
+	}
+
+
+	/**
+	 * Adds a batch of points in order.
+	 *
+	 * @param pts
+	 * @throws IllegalArgumentException if pts == null or contains null
+	 */
+	public void addAll(Point[] pts) throws IllegalArgumentException {
+		if (pts == null) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null");
+		}
+		for (Point p : pts) {
+			add(p);
+		}
+	}
+
+
+	/**
+	 * Adds a batch of packed points in order.
+	 *
+	 * @param pts
+	 * @throws IllegalArgumentException if pts == null
+	 */
+	public void addAll(PointArray pts) throws IllegalArgumentException {
+		if (pts == null) {
+			throw new IllegalArgumentException("Array 'pts' cannot be null");
+		}
+		for (int i = 0; i < pts.size(); i++) {
+			add(pts.xs[i], pts.ys[i]);
+		}
+	}
+
+
+	/**
+	 * Removes the oldest point from the window.
+	 *
+	 * @throws IllegalStateException if the window is empty
+	 */
+	public void evictOldest() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("Window is empty");
+		}
+		medianX.remove(oldest);
+		medianY.remove(oldest);
+		oldest = (oldest + 1) % windowSize;
+		size--;
+	}
+
+
+	/**
+	 * @return  number of points in the window
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * @return  largest number of points in the window
+	 */
+	public int windowSize() {
+		return windowSize;
+	}
+
+
+	/**
+	 * Returns the point whose x and y coordinates are respectively the medians of the x and y coordinates
+	 * of the points in the window.
+	 *
+	 * @return  median coordinate point
+	 * @throws IllegalStateException if the window is empty
+	 */
+	public Point currentMcp() throws IllegalStateException {
+		if (size == 0) {
+			throw new IllegalStateException("Window is empty");
+		}
+		return new Point(medianX.get(), medianY.get());
+	}
+
+
+	/**
+	 * Write the MCP in the format "MCP: (x, y)", as PointScanner does.
+	 */
+	@Override
+	public String toString() {
+		return "MCP: " + currentMcp().toString();
+	}
+
+
+	/**
+	 *
+	 * The median of one coordinate over the slots of the window. The max-heap lower holds the n/2 slots with
+	 * the smallest values and the min-heap upper holds the others, so the top of upper is the value at index
+	 * n/2 of the sorted values.
+	 *
+	 */
+	private static class Median
+	{
+		private final int[] position;  // index of every slot in the heap that holds it.
+		private final Heap lower;
+		private final Heap upper;
+
+		Median(int capacity) {
+			position = new int[capacity];
+			lower = new Heap(true, capacity, position);
+			upper = new Heap(false, capacity, position);
+		}
+
+		int get() {
+			return upper.topValue();
+		}
+
+		void insert(int slot, int value) {
+			if (upper.size > 0 && value < upper.topValue()) {
+				lower.push(slot, value);
+			}
+			else {
+				upper.push(slot, value);
+			}
+			rebalance();
+		}
+
+		void remove(int slot) {
+			// A slot is in lower exactly if it sits at its recorded position there.
+			int i = position[slot];
+			if (i < lower.size && lower.slots[i] == slot) {
+				lower.removeAt(i);
+			}
+			else {
+				upper.removeAt(i);
+			}
+			rebalance();
+		}
+
+		// Restores size(lower) == floor(n/2) and size(upper) == ceil(n/2).
+		private void rebalance() {
+			if (upper.size > lower.size + 1) {
+				int value = upper.topValue();
+				lower.push(upper.removeAt(0), value);
+			}
+			else if (lower.size > upper.size) {
+				int value = lower.topValue();
+				upper.push(lower.removeAt(0), value);
+			}
+		}
+	}
+
+
+	/**
+	 *
+	 * A binary heap of slots that records the index of each slot it holds, so that any slot can be removed.
+	 * The values are stored next to the slots in heap order, so sifting reads no other array. A max-heap
+	 * stores the complement ~v of every value v, as IntHeap does.
+	 *
+	 */
+	private static class Heap
+	{
+		final int[] slots;             // slots[0..size) in heap order.
+		private final int[] keys;      // keys[i] is the value of slots[i], complemented in a max-heap.
+		int size = 0;
+		private final boolean max;
+		private final int[] position;  // shared with Median and the other heap.
+
+		Heap(boolean max, int capacity, int[] position) {
+			this.max = max;
+			this.position = position;
+			slots = new int[capacity];
+			keys = new int[capacity];
+		}
+
+		int topValue() {
+			return max ? ~keys[0] : keys[0];
+		}
+
+		void push(int slot, int value) {
+			siftUp(size++, slot, max ? ~value : value);
+		}
+
+		// Removes the slot at index i and returns it.
+		int removeAt(int i) {
+			int slot = slots[i];
+			int lastSlot = slots[--size];
+			int lastKey = keys[size];
+
+			if (i < size) {
+				// Refills the hole with the last slot, which may belong above or below it.
+				if (i > 0 && lastKey < keys[(i - 1) >>> 1]) {
+					siftUp(i, lastSlot, lastKey);
+				}
+				else {
+					siftDown(i, lastSlot, lastKey);
+				}
+			}
+			return slot;
+		}
+
+		// Places slot at the hole i or above it.
+		private void siftUp(int i, int slot, int key) {
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (keys[parent] <= key) {
+					break;
+				}
+				place(i, slots[parent], keys[parent]);
+				i = parent;
+			}
+			place(i, slot, key);
+		}
+
+		// Places slot at the hole i or below it.
+		private void siftDown(int i, int slot, int key) {
+			int child;
+			while ((child = 2 * i + 1) < size) {
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					child++;
+				}
+				if (key <= keys[child]) {
+					break;
+				}
+				place(i, slots[child], keys[child]);
+				i = child;
+			}
+			place(i, slot, key);
+		}
+
+		private void place(int i, int slot, int key) {
+			slots[i] = slot;
+			keys[i] = key;
+			position[slot] = i;
+		}
+	}
+}